@@ -0,0 +1,87 @@
+package com.beckett.grading.benchmark;
+
+import com.beckett.grading.dto.GradeResult;
+import com.beckett.grading.engine.*;
+import com.beckett.grading.service.impl.GradingServiceImpl;
+import com.beckett.grading.support.Fixtures;
+import com.beckett.grading.support.ReferenceData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * calculateFinalGrades against stubbed repositories: the step by step repository path, the in-memory snapshot,
+ * the fixed point path and the precomputed lattice as used by the service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeCalculationBenchmark {
+
+    @Param({"8.5,8.5,4.5,8.0", "10.0,10.0,10.0,10.0", "6.0,9.5,7.5,8.0"})
+    public String subGrades;
+
+    private String centering;
+    private String corners;
+    private String edges;
+    private String surface;
+
+    private GradeCalculator bigDecimalCalculator;
+    private GradeCalculator fixedPointCalculator;
+    private RepositoryGradeReferenceLookup repositoryLookup;
+    private GradeReferenceSnapshot snapshot;
+    private GradingServiceImpl gradingService;
+
+    @Setup
+    public void setUp() {
+        String[] values = subGrades.split(",");
+        centering = values[0];
+        corners = values[1];
+        edges = values[2];
+        surface = values[3];
+
+        ReferenceData referenceData = new ReferenceData();
+        repositoryLookup = Fixtures.construct(RepositoryGradeReferenceLookup.class,
+                referenceData.gradeFormulaRepository, referenceData.gradeRoundNumberRepository,
+                referenceData.takeOffReferenceRepository, referenceData.gradeFormulaMapper);
+        GradeReferenceIndex index = Fixtures.construct(GradeReferenceIndex.class,
+                referenceData.gradeFormulaRepository, referenceData.gradeRoundNumberRepository,
+                referenceData.takeOffReferenceRepository, referenceData.gradeFormulaMapper, repositoryLookup);
+        Fixtures.setField(index, "enabled", true);
+        snapshot = index.reload().orElseThrow();
+
+        FixedPointGradeCalculator fixedPoint = Fixtures.construct(FixedPointGradeCalculator.class, referenceData.gradingDescriptionMapper);
+        Fixtures.invoke(fixedPoint, "probe");
+        bigDecimalCalculator = Fixtures.construct(GradeCalculator.class, index, fixedPoint, referenceData.gradingDescriptionMapper);
+        fixedPointCalculator = Fixtures.construct(GradeCalculator.class, index, fixedPoint, referenceData.gradingDescriptionMapper);
+        Fixtures.setField(fixedPointCalculator, "fixedPointEnabled", true);
+
+        GradeLattice lattice = Fixtures.construct(GradeLattice.class, bigDecimalCalculator);
+        Fixtures.setField(lattice, "enabled", true);
+        lattice.rebuild(snapshot);
+        gradingService = Fixtures.construct(GradingServiceImpl.class, lattice, bigDecimalCalculator, index);
+    }
+
+    @Benchmark
+    public GradeResult repositoryLookup() {
+        return bigDecimalCalculator.calculate(centering, corners, edges, surface, repositoryLookup);
+    }
+
+    @Benchmark
+    public GradeResult snapshotLookup() {
+        return bigDecimalCalculator.calculate(centering, corners, edges, surface, snapshot);
+    }
+
+    @Benchmark
+    public GradeResult fixedPoint() {
+        return fixedPointCalculator.calculate(centering, corners, edges, surface, snapshot);
+    }
+
+    @Benchmark
+    public GradeResult calculateFinalGrades() {
+        return gradingService.calculateFinalGrades(centering, corners, edges, surface);
+    }
+}
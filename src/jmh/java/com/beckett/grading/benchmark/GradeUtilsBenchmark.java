@@ -0,0 +1,49 @@
+package com.beckett.grading.benchmark;
+
+import com.beckett.grading.support.Fixtures;
+import com.beckett.grading.utils.GradeUtils;
+import com.beckett.order.entity.CardSuborderItem;
+import com.beckett.order.entity.CardSuborderItemPlayer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GradeUtilsBenchmark {
+
+    @Param({"2023 Topps", "2023 Topps Chrome Update Series Sapphire Edition Refractors"})
+    public String setName;
+
+    private CardSuborderItem item;
+    private final Double[] grades = {1.0, 8.5, 9.25, 10.0, 10.5, null};
+
+    @Setup
+    public void setUp() {
+        CardSuborderItemPlayer player = Fixtures.newInstance(CardSuborderItemPlayer.class);
+        Fixtures.set(player, "name", "Shohei Ohtani");
+        item = Fixtures.newInstance(CardSuborderItem.class);
+        Fixtures.set(item, "cardNumber", "US250");
+        Fixtures.set(item, "setsName", setName);
+        Fixtures.set(item, "players", List.of(player));
+    }
+
+    @Benchmark
+    public Map<String, String> prepareLines() {
+        return GradeUtils.prepareLines(item);
+    }
+
+    @Benchmark
+    public void isValidGradeVal(Blackhole blackhole) {
+        for (Double grade : grades) {
+            blackhole.consume(GradeUtils.isValidGradeVal(grade));
+        }
+    }
+}
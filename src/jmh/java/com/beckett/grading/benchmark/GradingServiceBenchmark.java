@@ -0,0 +1,184 @@
+package com.beckett.grading.benchmark;
+
+import com.beckett.common.entity.UserInfoDetails;
+import com.beckett.grading.repository.GraderStatusRepository;
+import com.beckett.grading.repository.GradingItemRepository;
+import com.beckett.grading.repository.WorkQueueJobRepository;
+import com.beckett.grading.request.ItemGrades;
+import com.beckett.grading.response.GradingWorkQueuesResponse;
+import com.beckett.grading.service.impl.GraderProfileServiceImpl;
+import com.beckett.grading.service.impl.GradingServiceImpl;
+import com.beckett.grading.service.impl.ReferenceDataServiceImpl;
+import com.beckett.grading.support.Fixtures;
+import com.beckett.grading.utils.GradingMetrics;
+import com.beckett.grading.utils.GradingQueueMapper;
+import com.beckett.location.entity.JobLocationMapping;
+import com.beckett.location.entity.Location;
+import com.beckett.location.repository.JobLocationMappingRepository;
+import com.beckett.order.constant.OrderStatus;
+import com.beckett.order.entity.*;
+import com.beckett.order.repository.SuborderRepository;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.shdsvc.repository.ServiceLevelRepository;
+import com.beckett.user.entity.Users;
+import com.beckett.user.repository.UsersRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * The per item loops of submitGrades and finalizeGrades and the getGradingQueues mapping loop over synthetic
+ * jobs, with every repository stubbed so only the in-process work is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingServiceBenchmark {
+
+    private static final String GRADER = "sr.grader@beckett.com";
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private GradingServiceImpl gradingService;
+    private UserInfoDetails grader;
+    private List<ItemGrades> itemGrades;
+    private Pageable pageable;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ServiceLevel serviceLevel = Fixtures.newInstance(ServiceLevel.class);
+        Fixtures.set(serviceLevel, "serviceLevelId", 1);
+        Fixtures.set(serviceLevel, "name", "Standard");
+        Fixtures.set(serviceLevel, "subGrade", Boolean.TRUE);
+
+        Order order = Fixtures.newInstance(Order.class);
+        Fixtures.set(order, "orderId", 1L);
+        Fixtures.set(order, "orderNo", "ORD-1");
+        Fixtures.set(order, "orderStatus", OrderStatus.GRADING);
+
+        CardSuborder cardSuborder = Fixtures.newInstance(CardSuborder.class);
+        Fixtures.set(cardSuborder, "cardSuborderId", 1L);
+        Fixtures.set(cardSuborder, "suborderId", 1L);
+        Fixtures.set(cardSuborder, "suborderNo", "SUB-1");
+        Fixtures.set(cardSuborder, "serviceLevelId", 1L);
+        Fixtures.set(cardSuborder, "dueDate", LocalDateTime.now());
+        Fixtures.set(cardSuborder, "order", order);
+
+        Location location = Fixtures.newInstance(Location.class);
+        Fixtures.set(location, "name", "Vault");
+        Fixtures.set(location, "locationNumber", "7");
+
+        List<CardSuborderJob> jobs = new ArrayList<>();
+        List<JobLocationMapping> jobLocations = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            CardSuborderJob job = Fixtures.newInstance(CardSuborderJob.class);
+            Fixtures.set(job, "id", i);
+            Fixtures.set(job, "jobNo", "JOB-" + i);
+            Fixtures.set(job, "itemCount", 25);
+            Fixtures.set(job, "cardSuborder", cardSuborder);
+            jobs.add(job);
+            JobLocationMapping jobLocation = Fixtures.newInstance(JobLocationMapping.class);
+            Fixtures.set(jobLocation, "cardSuborderJob", job);
+            Fixtures.set(jobLocation, "location", location);
+            jobLocations.add(jobLocation);
+        }
+
+        CardSuborderJob gradedJob = jobs.getFirst();
+        List<CardSuborderItem> cardItems = new ArrayList<>();
+        itemGrades = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            CardSuborderItem item = Fixtures.newInstance(CardSuborderItem.class);
+            Fixtures.set(item, "cardSuborderItemId", i);
+            Fixtures.set(item, "itemName", "Card " + i);
+            Fixtures.set(item, "cardSuborderJob", gradedJob);
+            cardItems.add(item);
+
+            ItemGrades grade = Fixtures.newInstance(ItemGrades.class);
+            Fixtures.set(grade, "cardSuborderItemId", i);
+            Fixtures.set(grade, "centering", 8.5);
+            Fixtures.set(grade, "corners", 9.0);
+            Fixtures.set(grade, "edges", 8.0);
+            Fixtures.set(grade, "surface", 9.5);
+            Fixtures.set(grade, "minGrade", 8.0);
+            Fixtures.set(grade, "finalGrade", 8.5);
+            Fixtures.setNew(grade, "tagImageAndGraderNotes");
+            itemGrades.add(grade);
+        }
+        // the requests arrive in a different order than the items are loaded
+        itemGrades = itemGrades.reversed();
+
+        Users user = Fixtures.newInstance(Users.class);
+        Fixtures.set(user, "active", Boolean.TRUE);
+        Fixtures.set(user, "deleted", Boolean.FALSE);
+        UsersRepository usersRepository = mock(UsersRepository.class);
+        when(usersRepository.findById(any())).thenReturn(Optional.of(user));
+
+        GradingItemRepository gradingItemRepository = mock(GradingItemRepository.class);
+        when(gradingItemRepository.findAllForGrading(any())).thenReturn(cardItems);
+
+        Page<CardSuborderJob> page = new PageImpl<>(jobs, PageRequest.of(0, items), items * 10L);
+        pageable = PageRequest.of(0, items);
+        WorkQueueJobRepository workQueueJobRepository = mock(WorkQueueJobRepository.class);
+        when(workQueueJobRepository.findAll((Specification<CardSuborderJob>) any(), any(Pageable.class))).thenReturn(page);
+
+        JobLocationMappingRepository jobLocationMappingRepository = mock(JobLocationMappingRepository.class);
+        when(jobLocationMappingRepository.findByCardSubOrderJobNoAndCurrentLocationTrue(any())).thenReturn(jobLocations);
+
+        ServiceLevelRepository serviceLevelRepository = mock(ServiceLevelRepository.class);
+        when(serviceLevelRepository.findById(anyInt())).thenReturn(Optional.of(serviceLevel));
+
+        Suborder suborder = mock(Suborder.class, RETURNS_DEEP_STUBS);
+        when(suborder.getShipMethodId().getCountry().getCountryName()).thenReturn("United States of America");
+        SuborderRepository suborderRepository = mock(SuborderRepository.class);
+        when(suborderRepository.findById(any())).thenReturn(Optional.of(suborder));
+
+        grader = mock(UserInfoDetails.class);
+        when(grader.getUsername()).thenReturn(GRADER);
+        when(grader.getUserId()).thenReturn(1L);
+
+        GraderStatusRepository graderStatusRepository = mock(GraderStatusRepository.class);
+        when(graderStatusRepository.isActive(any())).thenReturn(true);
+
+        GraderProfileServiceImpl graderProfileService = new GraderProfileServiceImpl(usersRepository, graderStatusRepository);
+        gradingService = Fixtures.construct(GradingServiceImpl.class, usersRepository, gradingItemRepository,
+                workQueueJobRepository, jobLocationMappingRepository, suborderRepository,
+                Fixtures.construct(ReferenceDataServiceImpl.class, serviceLevelRepository),
+                graderProfileService, new GradingQueueMapper(graderProfileService),
+                // metrics disabled, as grading.metrics.enabled is not injected here
+                new GradingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public GradingWorkQueuesResponse getGradingQueues() {
+        return gradingService.getTotalGradingWorkQueues(null, null, null, null, pageable, null, true);
+    }
+
+    @Benchmark
+    public Void submitGrades() {
+        return gradingService.submitGrades(grader, itemGrades);
+    }
+
+    @Benchmark
+    public Void finalizeGrades() {
+        return gradingService.finalizeGrades(grader, itemGrades);
+    }
+}
@@ -1,23 +1,95 @@
 package com.beckett.grading.config;
 
+import com.beckett.grading.utils.DownstreamClient;
+import com.beckett.grading.utils.GradingMetrics;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClient;
 
 import java.time.Duration;
 
+/**
+ * An HTTP client per downstream, each with its own connection pool sized and timed by grading.http.&lt;name&gt;.*
+ * and its own circuit breaker and bulkheads configured under resilience4j.*.instances.&lt;name&gt;.
+ */
 @Component
+@RequiredArgsConstructor
 public class ApplicationConfig {
-    @Bean
-    public RestClient restClient() {
-        HttpComponentsClientHttpRequestFactory clientHttpRequestFactory =
-                new HttpComponentsClientHttpRequestFactory();
-        clientHttpRequestFactory.setConnectTimeout(Duration.ofSeconds(10));
-        clientHttpRequestFactory.setConnectionRequestTimeout(Duration.ofSeconds(10));
-
-        return RestClient.builder()
-                .requestFactory(clientHttpRequestFactory)
+
+    public static final String CRM_CLIENT = "crmClient";
+    public static final String NOTIFICATION_CLIENT = "notificationClient";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final GradingMetrics gradingMetrics;
+
+    @Bean(CRM_CLIENT)
+    public DownstreamClient crmClient() {
+        return downstreamClient("crm");
+    }
+
+    @Bean(NOTIFICATION_CLIENT)
+    public DownstreamClient notificationClient() {
+        return downstreamClient("notification");
+    }
+
+    private DownstreamClient downstreamClient(String name) {
+        Duration readTimeout = setting(name, "read-timeout", Duration.ofSeconds(10));
+        Duration keepAlive = setting(name, "keep-alive", Duration.ofSeconds(30));
+        int maxConnections = environment.getProperty("grading.http." + name + ".max-connections", Integer.class, 20);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(setting(name, "connect-timeout", Duration.ofSeconds(5))))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setTimeToLive(TimeValue.of(setting(name, "connection-ttl", Duration.ofMinutes(5))))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(setting(name, "connection-request-timeout", Duration.ofSeconds(2))))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(keepAlive))
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
                 .build();
+        return new DownstreamClient(name, restClient, httpClient,
+                circuitBreakerRegistry.circuitBreaker(name),
+                bulkheadRegistry.bulkhead(name),
+                threadPoolBulkheadRegistry.bulkhead(name),
+                gradingMetrics);
+    }
+
+    private Duration setting(String name, String key, Duration defaultValue) {
+        return environment.getProperty("grading.http." + name + "." + key, Duration.class, defaultValue);
     }
 }
@@ -0,0 +1,67 @@
+package com.beckett.grading.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collections;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String GRADER_PROFILES = "graderProfiles";
+    public static final String SERVICE_LEVELS = "serviceLevels";
+    public static final String GRADE_MASTERS = "gradeMasters";
+    public static final String GRADING_SERVICE_TYPES = "gradingServiceTypes";
+    public static final String MASTER_CATEGORIES = "masterCategories";
+    public static final String DEAL_STAGES = "dealStages";
+    public static final String LABEL_LINES = "labelLines";
+
+    @Value("${grading.cache.grader-profiles.max-size:2000}")
+    private long graderProfilesMaxSize;
+
+    @Value("${grading.cache.grader-profiles.ttl:PT10M}")
+    private Duration graderProfilesTtl;
+
+    // reference data caches take a Caffeine spec each, e.g. maximumSize=500,expireAfterWrite=1h
+    @Value("${grading.cache.service-levels.spec:maximumSize=200,expireAfterWrite=1h}")
+    private String serviceLevelsSpec;
+
+    @Value("${grading.cache.grade-masters.spec:maximumSize=100,expireAfterWrite=1h}")
+    private String gradeMastersSpec;
+
+    @Value("${grading.cache.grading-service-types.spec:maximumSize=50,expireAfterWrite=1h}")
+    private String gradingServiceTypesSpec;
+
+    @Value("${grading.cache.master-categories.spec:maximumSize=1000,expireAfterWrite=1h}")
+    private String masterCategoriesSpec;
+
+    @Value("${grading.cache.deal-stages.spec:maximumSize=100,expireAfterWrite=6h}")
+    private String dealStagesSpec;
+
+    @Value("${grading.cache.label-lines.spec:maximumSize=10000,expireAfterAccess=6h}")
+    private String labelLinesSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // only the caches registered below, no unbounded caches created on the fly
+        cacheManager.setCacheNames(Collections.emptyList());
+        cacheManager.registerCustomCache(GRADER_PROFILES, Caffeine.newBuilder()
+                .maximumSize(graderProfilesMaxSize)
+                .expireAfterWrite(graderProfilesTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(SERVICE_LEVELS, Caffeine.from(serviceLevelsSpec).recordStats().build());
+        cacheManager.registerCustomCache(GRADE_MASTERS, Caffeine.from(gradeMastersSpec).recordStats().build());
+        cacheManager.registerCustomCache(GRADING_SERVICE_TYPES, Caffeine.from(gradingServiceTypesSpec).recordStats().build());
+        cacheManager.registerCustomCache(MASTER_CATEGORIES, Caffeine.from(masterCategoriesSpec).recordStats().build());
+        cacheManager.registerCustomCache(DEAL_STAGES, Caffeine.from(dealStagesSpec).recordStats().build());
+        cacheManager.registerCustomCache(LABEL_LINES, Caffeine.from(labelLinesSpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,43 @@
+package com.beckett.grading.config;
+
+import com.beckett.grading.utils.GradingMetrics;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * Adds an advice to every Spring Data repository proxy that counts the call against the grading operation running on
+ * the calling thread, see {@link GradingMetrics#repositoryCall()}. Nothing is added when grading.metrics.enabled is
+ * false.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor repositoryCallCounter(Environment environment, ObjectProvider<GradingMetrics> gradingMetrics) {
+        boolean enabled = environment.getProperty("grading.metrics.enabled", Boolean.class, true);
+        // resolved on the first call, the repositories are created before the metrics bean
+        Supplier<GradingMetrics> metrics = SingletonSupplier.of(gradingMetrics::getObject);
+        MethodInterceptor counter = invocation -> {
+            metrics.get().repositoryCall();
+            return invocation.proceed();
+        };
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(counter)));
+                }
+                return bean;
+            }
+        };
+    }
+}
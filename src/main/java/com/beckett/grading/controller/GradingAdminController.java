@@ -0,0 +1,102 @@
+package com.beckett.grading.controller;
+
+import com.beckett.common.dto.ResponseDTO;
+import com.beckett.grading.engine.GradeReferenceIndex;
+import com.beckett.grading.engine.GradeReferenceSnapshot;
+import com.beckett.grading.service.GraderProfileService;
+import com.beckett.grading.service.GradingQueueProjectionService;
+import com.beckett.grading.service.ReferenceDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/grading/admin")
+@Tag(name = "Grading Admin API", description = "APIs for Grading maintenance operations")
+@CrossOrigin(origins = "*", allowedHeaders = "*", exposedHeaders = "*",
+        methods = {RequestMethod.GET, RequestMethod.POST,
+                RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
+public class GradingAdminController {
+    private final GradeReferenceIndex gradeReferenceIndex;
+    private final GradingQueueProjectionService gradingQueueProjectionService;
+    private final GraderProfileService graderProfileService;
+    private final ReferenceDataService referenceDataService;
+
+    @Autowired
+    public GradingAdminController(GradeReferenceIndex gradeReferenceIndex,
+                                  GradingQueueProjectionService gradingQueueProjectionService,
+                                  GraderProfileService graderProfileService,
+                                  ReferenceDataService referenceDataService) {
+        this.gradeReferenceIndex = gradeReferenceIndex;
+        this.gradingQueueProjectionService = gradingQueueProjectionService;
+        this.graderProfileService = graderProfileService;
+        this.referenceDataService = referenceDataService;
+    }
+
+    @Operation(summary = "Reload the grade formula, round number and take off reference data used by the grade calculator")
+    @PostMapping(value = "/reference-data/reload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Long>> reloadReferenceData() {
+        return ResponseEntity.ok(ResponseDTO.<Long>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Grade reference data reloaded successfully.")
+                .data(gradeReferenceIndex.reload().map(GradeReferenceSnapshot::getVersion).orElse(null))
+                .build());
+    }
+
+    @Operation(summary = "Evict and preload the service level, grade master, grading service type, master category and deal stage caches")
+    @PostMapping(value = "/reference-data/caches/reload", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Void>> reloadReferenceDataCaches() {
+        referenceDataService.evictAll();
+        referenceDataService.preload();
+        return ResponseEntity.ok(ResponseDTO.<Void>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Reference data caches reloaded successfully.")
+                .build());
+    }
+
+    @Operation(summary = "Rebuild the grading work queue read model from the card sub order jobs")
+    @PostMapping(value = "/work-queues/rebuild", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Integer>> rebuildWorkQueues() {
+        return ResponseEntity.ok(ResponseDTO.<Integer>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Grading work queues rebuilt successfully.")
+                .data(gradingQueueProjectionService.rebuild())
+                .build());
+    }
+
+    @Operation(summary = "Refresh the grading work queue rows of the given card sub order jobs, e.g. after a location move")
+    @PostMapping(value = "/work-queues/refresh", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Void>> refreshWorkQueues(@RequestBody List<Long> cardSuborderJobIds) {
+        gradingQueueProjectionService.refresh(cardSuborderJobIds);
+        return ResponseEntity.ok(ResponseDTO.<Void>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Grading work queues refreshed successfully.")
+                .build());
+    }
+
+    @Operation(summary = "Evict the cached grader profile of a user, e.g. after the user's roles or active flag changed")
+    @DeleteMapping(value = "/grader-profiles/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Void>> evictGraderProfile(@PathVariable Long userId) {
+        graderProfileService.evict(userId);
+        return ResponseEntity.ok(ResponseDTO.<Void>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Grader profile evicted successfully.")
+                .build());
+    }
+
+    @Operation(summary = "Evict all cached grader profiles")
+    @DeleteMapping(value = "/grader-profiles", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<Void>> evictGraderProfiles() {
+        graderProfileService.evictAll();
+        return ResponseEntity.ok(ResponseDTO.<Void>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Grader profiles evicted successfully.")
+                .build());
+    }
+}
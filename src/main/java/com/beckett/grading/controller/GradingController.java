@@ -6,10 +6,13 @@ import com.beckett.common.entity.UserInfoDetails;
 import com.beckett.common.exception.UnauthorizedAccessException;
 import com.beckett.grading.dto.GradeResult;
 import com.beckett.grading.request.AssignGradersRequest;
+import com.beckett.grading.request.CalculateGradeRequest;
 import com.beckett.grading.request.ItemGrades;
 import com.beckett.grading.response.GradingIssueCategories;
 import com.beckett.grading.response.GradingWorkQueuesResponse;
+import com.beckett.grading.response.JobAssignmentOutcome;
 import com.beckett.grading.service.GradingService;
+import com.beckett.grading.service.WorkQueueStreamService;
 import io.micrometer.common.util.StringUtils;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +29,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.*;
 
@@ -37,32 +41,59 @@ import java.util.*;
                 RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class GradingController {
     private final GradingService gradingService;
+    private final WorkQueueStreamService workQueueStreamService;
 
     @Autowired
-    public GradingController(GradingService gradingService) {
+    public GradingController(GradingService gradingService, WorkQueueStreamService workQueueStreamService) {
         this.gradingService = gradingService;
+        this.workQueueStreamService = workQueueStreamService;
     }
 
-    @Operation(summary = "Get my grading queues based on user")
+    @Operation(summary = "Get my grading queues based on user",
+            description = "Pass a cursor (empty for the first page) to page by due date and job id using page.nextCursor, includeTotal=false skips counting the total records, with or without a cursor.")
     @PostMapping(value = "/my-work-queues", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ResponseDTO<GradingWorkQueuesResponse>> myWorkQueues(@RequestBody @Valid SearchPaginatedDTO searchPaginatedDTO) {
+    public ResponseEntity<ResponseDTO<GradingWorkQueuesResponse>> myWorkQueues(@RequestBody @Valid SearchPaginatedDTO searchPaginatedDTO,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "true") boolean includeTotal) {
         return buildAndReturnResponse(gradingService.getMyGradingWorkQueues(
                 getLoggedInUserDetails().getUserId(),
                 getByKeyField("dueDate", searchPaginatedDTO, String.class),
                 getByKeyField("serviceLevelId", searchPaginatedDTO, Long.class),
                 getByKeyField("locationId", searchPaginatedDTO, Long.class),
-                generatePageRequest(searchPaginatedDTO)));
+                generatePageRequest(searchPaginatedDTO),
+                cursor,
+                includeTotal));
     }
 
-    @Operation(summary = "Get total grading queues based on user")
+    @Operation(summary = "Get total grading queues based on user",
+            description = "Pass a cursor (empty for the first page) to page by due date and job id using page.nextCursor, includeTotal=false skips counting the total records, with or without a cursor.")
     @PostMapping(value = "/total-work-queues", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ResponseDTO<GradingWorkQueuesResponse>> getGradingWorkQueues(@RequestBody @Valid SearchPaginatedDTO searchPaginatedDTO) {
+    public ResponseEntity<ResponseDTO<GradingWorkQueuesResponse>> getGradingWorkQueues(@RequestBody @Valid SearchPaginatedDTO searchPaginatedDTO,
+                                                                                       @RequestParam(required = false) String cursor,
+                                                                                       @RequestParam(defaultValue = "true") boolean includeTotal) {
         return buildAndReturnResponse(gradingService.getTotalGradingWorkQueues(
                 getByKeyField("userId", searchPaginatedDTO, Long.class),
                 getByKeyField("dueDate", searchPaginatedDTO, String.class),
                 getByKeyField("serviceLevelId", searchPaginatedDTO, Long.class),
                 getByKeyField("locationId", searchPaginatedDTO, Long.class),
-                generatePageRequest(searchPaginatedDTO)));
+                generatePageRequest(searchPaginatedDTO),
+                cursor,
+                includeTotal));
+    }
+
+    @Operation(summary = "Stream work queue changes as server sent events",
+            description = "Events are QUEUED, ASSIGNED, STATUS_CHANGED, LOCATION_CHANGED and REMOVED, filtered by grader (mine=true for the logged in user), location and service level. "
+                    + "Reconnect with the Last-Event-ID header (or lastEventId) to replay missed events, a RESYNC event means the queue has to be fetched again.")
+    @GetMapping(value = "/work-queues/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamWorkQueues(@RequestParam(defaultValue = "false") boolean mine,
+                                       @RequestParam(required = false) Long graderId,
+                                       @RequestParam(required = false) Long locationId,
+                                       @RequestParam(required = false) Long serviceLevelId,
+                                       @RequestParam(required = false) Long lastEventId,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader) {
+        return workQueueStreamService.subscribe(
+                new WorkQueueStreamService.Filter(mine ? getLoggedInUserDetails().getUserId() : graderId, locationId, serviceLevelId),
+                lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
 
     private ResponseEntity<ResponseDTO<GradingWorkQueuesResponse>> buildAndReturnResponse(GradingWorkQueuesResponse gradingWorkQueuesResponse) {
@@ -144,11 +175,11 @@ public class GradingController {
 
     @Operation(summary = "Assign graders to selected Jobs from Queue")
     @PutMapping(value = "/assign", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<ResponseDTO<Void>> assignGraders(@RequestBody @Size(min = 1, message = "Please select at least Job and a grader, in order to do the assignment") List<AssignGradersRequest> assignGradersRequests) {
+    public ResponseEntity<ResponseDTO<List<JobAssignmentOutcome>>> assignGraders(@RequestBody @Size(min = 1, message = "Please select at least Job and a grader, in order to do the assignment") List<AssignGradersRequest> assignGradersRequests) {
         // need to check whether the logged in user is admin or a senior grader
-        return ResponseEntity.ok(ResponseDTO.<Void>builder()
+        return ResponseEntity.ok(ResponseDTO.<List<JobAssignmentOutcome>>builder()
                 .status(HttpStatus.OK.getReasonPhrase())
-                .message("Graders assigned successfully.")
+                .message("Graders assignment processed.")
                 .data(gradingService.assignGraders(assignGradersRequests))
                 .build());
     }
@@ -166,6 +197,16 @@ public class GradingController {
                 .build());
     }
 
+    @Operation(summary = "Calculate the final grades for a batch of 4 sub grading params, results are returned in request order")
+    @PostMapping(value = "/calc/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO<List<GradeResult>>> calculateFinalGrades(@RequestBody @Size(min = 1, message = "Please provide at least one set of sub grades to calculate") List<CalculateGradeRequest> subGrades) {
+        return ResponseEntity.ok(ResponseDTO.<List<GradeResult>>builder()
+                .status(HttpStatus.OK.getReasonPhrase())
+                .message("Final grades calculated successfully.")
+                .data(gradingService.calculateFinalGrades(subGrades))
+                .build());
+    }
+
     @Operation(summary = "Get the Category & Sub Category List to tag item with required grade level issues")
     @GetMapping(value = "/categories", produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ResponseDTO<List<GradingIssueCategories>>> getGradingIssueCategoryList() {
@@ -0,0 +1,42 @@
+package com.beckett.grading.dto;
+
+import com.beckett.user.entity.UserBusinessUnit;
+import com.beckett.user.entity.UserBusinessUnitJobRole;
+import com.beckett.user.entity.Users;
+
+/**
+ * What the grading flows need to know about a grader, resolved once from the user's business unit job roles.
+ *
+ * @param roleLabel first grading job role with its level, e.g. "Grader SR", null if the user has no grading role
+ * @param senior    false only when the first grading role with a level is not a senior level
+ * @param active    active and not deleted
+ */
+public record GraderProfile(Long userId, String email, boolean active, String roleLabel, boolean senior) {
+
+    public static GraderProfile of(Users user) { // NOSONAR
+        String roleLabel = null;
+        Boolean senior = null;
+        if(user.getUserBusinessUnits() != null) {
+            for (UserBusinessUnit userBusinessUnit : user.getUserBusinessUnits()) {
+                if(userBusinessUnit.getUserBusinessUnitJobRoles() == null) {
+                    continue;
+                }
+                for (UserBusinessUnitJobRole userBusinessUnitJobRole : userBusinessUnit.getUserBusinessUnitJobRoles()) {
+                    String jobRoleName = userBusinessUnitJobRole.getJobRole().getJobRoleName();
+                    if(!jobRoleName.toUpperCase().startsWith("GRAD")) {
+                        continue;
+                    }
+                    boolean hasLevel = userBusinessUnitJobRole.getJobRoleLevel() != null;
+                    if(roleLabel == null) {
+                        roleLabel = hasLevel ? jobRoleName + " " + userBusinessUnitJobRole.getJobRoleLevel().getJobRoleLevelValue() : jobRoleName;
+                    }
+                    if(senior == null && hasLevel) {
+                        senior = userBusinessUnitJobRole.getJobRoleLevel().getJobRoleLevelValue().toUpperCase().startsWith("SR");
+                    }
+                }
+            }
+        }
+        boolean active = Boolean.TRUE.equals(user.getActive()) && Boolean.FALSE.equals(user.getDeleted());
+        return new GraderProfile(user.getUserId(), user.getEmail(), active, roleLabel, senior == null || senior);
+    }
+}
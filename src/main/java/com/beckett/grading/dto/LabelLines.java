@@ -0,0 +1,7 @@
+package com.beckett.grading.dto;
+
+/**
+ * The four upper cased text lines printed on a card label, blank lines are empty strings.
+ */
+public record LabelLines(String line1, String line2, String line3, String line4) {
+}
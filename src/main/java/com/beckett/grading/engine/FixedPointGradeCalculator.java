@@ -0,0 +1,221 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.consants.Formulas;
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.dto.GradeResult;
+import com.beckett.grading.dto.RequestModel;
+import com.beckett.grading.utils.*;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Integer version of the step by step calculation: grades are half steps, the four sub grades are ordered with a
+ * sorting network and the formula sum, round number and take off lookups run on scaled longs.
+ * <p>
+ * Ties between equal sub grades are ordered exactly like the BigDecimal path orders them (set iteration order of
+ * {@link SubGradeMapper}), which is probed once at startup. When that can't be determined, or the input or the
+ * reference data is not representable, {@link #calculate} returns null and the BigDecimal path is used instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FixedPointGradeCalculator {
+
+    private static final String[] NAMES = {"CENTER", "CORNERS", "EDGES", "SURFACE"};
+    private static final int STEPS = GradeLattice.STEPS;
+
+    private final GradingDescriptionMapper gradingDescriptionMapper;
+    private final SubGradeMapper subGradeMapper = new SubGradeMapper();
+
+    // sub grade instances per name and step, position of each name among equal grades, diff value per step pair
+    private SubGrade[][] subGrades;
+    private int[][] tieRank;
+    private boolean[] tiesCollapse;
+    private BigDecimal[][] diffValues;
+    private boolean available;
+
+    @PostConstruct
+    void probe() {
+        try {
+            SubGrade[][] grades = new SubGrade[NAMES.length][STEPS];
+            for (int name = 0; name < NAMES.length; name++) {
+                for (int step = 0; step < STEPS; step++) {
+                    // the other three get distinct values so the probed one is the only sub grade at this step
+                    int[] steps = new int[NAMES.length];
+                    int next = 0;
+                    for (int i = 0; i < NAMES.length; i++) {
+                        if (i == name) {
+                            steps[i] = step;
+                            continue;
+                        }
+                        if (next == step) {
+                            next++;
+                        }
+                        steps[i] = next++;
+                    }
+                    Set<SubGrade> set = toSubGradeSet(steps);
+                    BigDecimal value = new BigDecimal(GradeLattice.toGrade(step));
+                    grades[name][step] = set.size() != NAMES.length ? null : set.stream()
+                            .filter(subGrade -> subGrade.getGrade().compareTo(value) == 0)
+                            .findFirst()
+                            .orElse(null);
+                    if (grades[name][step] == null) {
+                        log.warn("Fixed point grade calculation disabled, sub grades can't be identified.");
+                        return;
+                    }
+                }
+            }
+
+            int[][] ranks = new int[STEPS][NAMES.length];
+            boolean[] collapse = new boolean[STEPS];
+            for (int step = 0; step < STEPS; step++) {
+                List<SubGrade> tied = toSubGradeSet(new int[] {step, step, step, step}).stream()
+                        .sorted(Comparator.comparing(SubGrade::getGrade))
+                        .toList();
+                if (tied.size() != NAMES.length) {
+                    collapse[step] = true;
+                    continue;
+                }
+                boolean[] seen = new boolean[NAMES.length];
+                for (int position = 0; position < tied.size(); position++) {
+                    int name = indexOf(grades, step, tied.get(position));
+                    if (name < 0 || seen[name]) {
+                        log.warn("Fixed point grade calculation disabled, order of equal sub grades can't be determined.");
+                        return;
+                    }
+                    seen[name] = true;
+                    ranks[step][name] = position;
+                }
+            }
+
+            BigDecimal[][] diffs = new BigDecimal[STEPS][STEPS];
+            for (int high = 0; high < STEPS; high++) {
+                for (int low = 0; low <= high; low++) {
+                    diffs[high][low] = grades[0][high].getGrade().subtract(grades[0][low].getGrade());
+                }
+            }
+
+            this.subGrades = grades;
+            this.tieRank = ranks;
+            this.tiesCollapse = collapse;
+            this.diffValues = diffs;
+            this.available = true;
+        } catch (RuntimeException e) {
+            log.warn("Fixed point grade calculation disabled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Same result as {@link GradeCalculator} for the given snapshot, or null when this path can't guarantee that.
+     */
+    public GradeResult calculate(String centering, String corners, String edges, String surface, GradeReferenceSnapshot snapshot) {
+        FixedPointReferenceTables tables = snapshot.getFixedPointTables();
+        if (!available || tables == null) {
+            return null;
+        }
+        int c = parseStep(centering);
+        int co = parseStep(corners);
+        int e = parseStep(edges);
+        int s = parseStep(surface);
+        if (c < 0 || co < 0 || e < 0 || s < 0 || hasCollapsingTie(c, co, e, s)) {
+            return null;
+        }
+
+        // step 2, sort key: step, then position among equal grades, the name index in the lowest two bits
+        int k0 = key(0, c);
+        int k1 = key(1, co);
+        int k2 = key(2, e);
+        int k3 = key(3, s);
+        int tmp;
+        if (k0 > k1) { tmp = k0; k0 = k1; k1 = tmp; }
+        if (k2 > k3) { tmp = k2; k2 = k3; k3 = tmp; }
+        if (k0 > k2) { tmp = k0; k0 = k2; k2 = tmp; }
+        if (k1 > k3) { tmp = k1; k1 = k3; k3 = tmp; }
+        if (k1 > k2) { tmp = k1; k1 = k2; k2 = tmp; }
+        int s0 = k0 >>> 4;
+        int s1 = k1 >>> 4;
+        int s2 = k2 >>> 4;
+        int s3 = k3 >>> 4;
+
+        // step 3 + step 4
+        BigDecimal diffValue = diffValues[s1][s0];
+        Formulas formula = FormulaFactory.getFormula(diffValue, List.of(
+                subGrades[k0 & 3][s0], subGrades[k1 & 3][s1], subGrades[k2 & 3][s2], subGrades[k3 & 3][s3]));
+        GradeFormulaDTO gradeFormulas = snapshot.findGradeFormulas(formula.getValue(), diffValue);
+        // step 7, half steps are grade * 2
+        long formulaSum = tables.formulaSum(gradeFormulas, s0 + 2, s1 + 2, s2 + 2, s3 + 2);
+        if (formulaSum == Long.MIN_VALUE) {
+            return null;
+        }
+        // step 8 to step 11
+        int roundRow = tables.findRoundNumber(formulaSum);
+        BigDecimal roundNumber = tables.roundNumber(roundRow);
+        int bumpCount = tables.bumpCount(roundRow, s0 + 2);
+        // step 12 + step 13
+        BigDecimal grading = roundNumber.subtract(GradeCalculator.getTakeoffNumber(formula, bumpCount));
+        return new GradeResult(grading, gradingDescriptionMapper.getMapping(grading));
+    }
+
+    private int key(int name, int step) {
+        return (((step << 2) | tieRank[step][name]) << 2) | name;
+    }
+
+    private boolean hasCollapsingTie(int c, int co, int e, int s) {
+        return (tiesCollapse[c] && (c == co || c == e || c == s))
+                || (tiesCollapse[co] && (co == e || co == s))
+                || (tiesCollapse[e] && e == s);
+    }
+
+    private Set<SubGrade> toSubGradeSet(int[] steps) {
+        List<RequestModel> toGrade = new ArrayList<>();
+        for (int i = 0; i < NAMES.length; i++) {
+            toGrade.add(new RequestModel(GradeLattice.toGrade(steps[i]), NAMES[i]));
+        }
+        return subGradeMapper.toSubGradeSet(toGrade);
+    }
+
+    private static int indexOf(SubGrade[][] grades, int step, SubGrade subGrade) {
+        int found = -1;
+        for (int name = 0; name < grades.length; name++) {
+            if (grades[name][step].equals(subGrade)) {
+                if (found >= 0) {
+                    return -1;
+                }
+                found = name;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Accepts the canonical one decimal form only ("8.5", "10.0"), anything else goes through the BigDecimal path.
+     */
+    static int parseStep(String grade) {
+        if (grade == null) {
+            return -1;
+        }
+        int length = grade.length();
+        if (length < 3 || length > 4 || grade.charAt(length - 2) != '.') {
+            return -1;
+        }
+        int whole = 0;
+        for (int i = 0; i < length - 2; i++) {
+            char digit = grade.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            whole = whole * 10 + (digit - '0');
+        }
+        char fraction = grade.charAt(length - 1);
+        if (fraction != '0' && fraction != '5') {
+            return -1;
+        }
+        int step = whole * 2 + (fraction == '5' ? 1 : 0) - 2;
+        return step >= 0 && step < STEPS ? step : -1;
+    }
+}
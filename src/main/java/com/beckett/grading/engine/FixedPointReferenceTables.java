@@ -0,0 +1,205 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.entity.GradeRoundNumber;
+import com.beckett.grading.entity.TakeOffReference;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * The reference data of a {@link GradeReferenceSnapshot} as scaled longs for {@link FixedPointGradeCalculator}.
+ * Every value v is stored as v * 2 * 10^scale, so half step grades and all table values stay exact integers.
+ */
+@Slf4j
+final class FixedPointReferenceTables {
+
+    // keeps h * w (max 20 * weight) and the sums far away from overflow
+    private static final int MAX_SCALE = 12;
+    static final BigDecimal DEFAULT_ROUND_NUMBER = new BigDecimal(10);
+
+    private final long unit;
+    private final Map<GradeFormulaDTO, long[]> formulaWeights;
+    private final long[] roundBeginnings;
+    private final long[] roundEndings;
+    private final long[] roundFixedNumbers;
+    private final BigDecimal[] roundNumbers;
+    private final int[] roundRowOrder;
+    private final boolean roundOverlapping;
+    private final long defaultFixedRoundNumber;
+    private final long[] takeOffNumbers;
+
+    private FixedPointReferenceTables(int scale, Map<GradeFormulaDTO, long[]> formulaWeights,
+                                      List<GradeRoundNumber> rounds, boolean roundOverlapping, int[] roundRowOrder,
+                                      long[] takeOffNumbers) {
+        this.unit = pow10(scale);
+        this.formulaWeights = formulaWeights;
+        this.defaultFixedRoundNumber = toFixed(DEFAULT_ROUND_NUMBER, scale);
+        this.roundBeginnings = new long[rounds.size()];
+        this.roundEndings = new long[rounds.size()];
+        this.roundFixedNumbers = new long[rounds.size()];
+        this.roundNumbers = new BigDecimal[rounds.size()];
+        for (int i = 0; i < rounds.size(); i++) {
+            GradeRoundNumber round = rounds.get(i);
+            roundBeginnings[i] = toFixed(round.getNumberBeginning(), scale);
+            roundEndings[i] = toFixed(round.getNumberEnding(), scale);
+            // a matching row without a number falls back to the default, same as the repository lookup
+            roundNumbers[i] = round.getNumber() != null ? round.getNumber() : DEFAULT_ROUND_NUMBER;
+            roundFixedNumbers[i] = round.getNumber() != null ? toFixed(round.getNumber(), scale) : defaultFixedRoundNumber;
+        }
+        this.roundOverlapping = roundOverlapping;
+        this.roundRowOrder = roundRowOrder;
+        this.takeOffNumbers = takeOffNumbers;
+    }
+
+    /**
+     * Returns null when the tables can't be represented exactly, in which case only the BigDecimal path is used.
+     */
+    static FixedPointReferenceTables of(Collection<GradeFormulaDTO> formulas,
+                                        List<GradeRoundNumber> roundNumbers,
+                                        List<TakeOffReference> takeOffReferences) {
+        try {
+            int scale = 0;
+            for (GradeFormulaDTO formula : formulas) {
+                scale = Math.max(scale, maxScale(formula.getGrade1(), formula.getGrade2(), formula.getGrade3(), formula.getGrade4()));
+            }
+            List<GradeRoundNumber> rows = roundNumbers.stream()
+                    .filter(round -> round.getNumberBeginning() != null && round.getNumberEnding() != null
+                            && round.getNumberBeginning().compareTo(round.getNumberEnding()) <= 0)
+                    .toList();
+            for (GradeRoundNumber round : rows) {
+                scale = Math.max(scale, maxScale(round.getNumberBeginning(), round.getNumberEnding(), round.getNumber()));
+            }
+            for (TakeOffReference takeOffReference : takeOffReferences) {
+                scale = Math.max(scale, maxScale(takeOffReference.getNumber()));
+            }
+            if (scale > MAX_SCALE) {
+                log.warn("Grade reference data scale {} is too large for the fixed point path.", scale);
+                return null;
+            }
+
+            Map<GradeFormulaDTO, long[]> weights = new IdentityHashMap<>();
+            for (GradeFormulaDTO formula : formulas) {
+                if (formula.getGrade1() != null && formula.getGrade2() != null && formula.getGrade3() != null && formula.getGrade4() != null) {
+                    // weights are kept at 10^scale only, the half step grade already carries the factor 2
+                    weights.put(formula, new long[] {
+                            formula.getGrade1().movePointRight(scale).longValueExact(),
+                            formula.getGrade2().movePointRight(scale).longValueExact(),
+                            formula.getGrade3().movePointRight(scale).longValueExact(),
+                            formula.getGrade4().movePointRight(scale).longValueExact()});
+                }
+            }
+
+            // sorted by beginning for the binary search, the original row order is kept for overlapping ranges
+            List<GradeRoundNumber> sorted = rows.stream()
+                    .sorted(Comparator.comparing(GradeRoundNumber::getNumberBeginning))
+                    .toList();
+            boolean overlapping = false;
+            for (int i = 1; i < sorted.size(); i++) {
+                if (sorted.get(i).getNumberBeginning().compareTo(sorted.get(i - 1).getNumberEnding()) <= 0) {
+                    overlapping = true;
+                    break;
+                }
+            }
+            int[] rowOrder = new int[sorted.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                rowOrder[i] = sorted.indexOf(rows.get(i));
+            }
+
+            int finalScale = scale;
+            long[] takeOffs = takeOffReferences.stream()
+                    .map(TakeOffReference::getNumber)
+                    .filter(Objects::nonNull)
+                    .mapToLong(number -> toFixed(number, finalScale))
+                    .sorted()
+                    .toArray();
+            return new FixedPointReferenceTables(scale, weights, sorted, overlapping, rowOrder, takeOffs);
+        } catch (ArithmeticException e) {
+            log.warn("Grade reference data can't be represented as fixed point values: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Formula sum of the four sorted grades given as half steps (grade * 2), in fixed point units.
+     * Returns Long.MIN_VALUE when the formula has no usable weights.
+     */
+    long formulaSum(GradeFormulaDTO formula, int h0, int h1, int h2, int h3) {
+        long[] weights = formulaWeights.get(formula);
+        if (weights == null) {
+            return Long.MIN_VALUE;
+        }
+        return h0 * weights[0] + h1 * weights[1] + h2 * weights[2] + h3 * weights[3];
+    }
+
+    /**
+     * Index of the matching grade round number row, or -1 when no row matches and the default of 10 applies.
+     */
+    int findRoundNumber(long formulaSum) {
+        if (roundOverlapping) {
+            for (int row : roundRowOrder) {
+                if (roundBeginnings[row] <= formulaSum && roundEndings[row] >= formulaSum) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+        int low = 0;
+        int high = roundBeginnings.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (roundBeginnings[mid] <= formulaSum) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low > 0 && roundEndings[low - 1] >= formulaSum ? low - 1 : -1;
+    }
+
+    BigDecimal roundNumber(int row) {
+        return row < 0 ? DEFAULT_ROUND_NUMBER : roundNumbers[row];
+    }
+
+    /**
+     * Take off references with number <= round number - lowest grade, the lowest grade given as half steps.
+     */
+    int bumpCount(int row, int lowestHalfSteps) {
+        long roundNumber = row < 0 ? defaultFixedRoundNumber : roundFixedNumbers[row];
+        long bump = roundNumber - lowestHalfSteps * unit;
+        int low = 0;
+        int high = takeOffNumbers.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (takeOffNumbers[mid] <= bump) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toFixed(BigDecimal value, int scale) {
+        return value.movePointRight(scale).multiply(BigDecimal.TWO).longValueExact();
+    }
+
+    private static int maxScale(BigDecimal... values) {
+        int scale = 0;
+        for (BigDecimal value : values) {
+            if (value != null) {
+                scale = Math.max(scale, value.scale());
+            }
+        }
+        return scale;
+    }
+
+    private static long pow10(int scale) {
+        long result = 1;
+        for (int i = 0; i < scale; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,119 @@
+package com.beckett.grading.engine;
+
+import com.beckett.common.exception.SubGradeSizeExceeded;
+import com.beckett.grading.consants.Formulas;
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.dto.GradeResult;
+import com.beckett.grading.dto.RequestModel;
+import com.beckett.grading.utils.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Step by step final grade calculation, the reference tables are resolved through the given {@link GradeReferenceLookup}.
+ * With grading.calc.fixed-point.enabled the {@link FixedPointGradeCalculator} is tried first for snapshot backed lookups.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradeCalculator {
+
+    private final GradeReferenceIndex gradeReferenceIndex;
+    private final FixedPointGradeCalculator fixedPointGradeCalculator;
+    private final GradingDescriptionMapper gradingDescriptionMapper;
+    private final SubGradeMapper subGradeMapper = new SubGradeMapper();
+
+    @Value("${grading.calc.fixed-point.enabled:false}")
+    private boolean fixedPointEnabled;
+
+    public GradeResult calculate(String centering, String corners, String edges, String surface) {
+        return calculate(centering, corners, edges, surface, gradeReferenceIndex);
+    }
+
+    public GradeResult calculate(String centering, String corners, String edges, String surface, GradeReferenceLookup lookup) {
+        if (fixedPointEnabled) {
+            GradeReferenceSnapshot snapshot = lookup instanceof GradeReferenceSnapshot referenceSnapshot ? referenceSnapshot
+                    : lookup instanceof GradeReferenceIndex index ? index.current().orElse(null) : null;
+            GradeResult result = snapshot != null
+                    ? fixedPointGradeCalculator.calculate(centering, corners, edges, surface, snapshot) : null;
+            if (result != null) {
+                return result;
+            }
+        }
+        List<RequestModel> toGrade = new ArrayList<>();
+        toGrade.add(new RequestModel(centering, "CENTER"));
+        toGrade.add(new RequestModel(corners, "CORNERS"));
+        toGrade.add(new RequestModel(edges, "EDGES"));
+        toGrade.add(new RequestModel(surface, "SURFACE"));
+
+        Set<SubGrade> subgradeSet = subGradeMapper.toSubGradeSet(toGrade);
+        //step 2 Sorting subgrades in ascending order:
+        List<SubGrade> sorted = getSorted(subgradeSet);
+        //step 3 Calculation of Diff Value
+        BigDecimal diffValue = calculateDiffValue(sorted);
+        //step 4 Formula selection step
+        Formulas formula = FormulaFactory.getFormula(diffValue, sorted);
+        GradeFormulaDTO gradeFormulas = lookup.findGradeFormulas(formula.getValue(), diffValue);
+        //step 7
+        BigDecimal formulaSum = calculateFormulaSum(sorted, gradeFormulas);
+        //step 8 + step 9
+        BigDecimal roundNumber = lookup.getGradeNumberByFormulaSum(formulaSum);
+        //step 10
+        BigDecimal bump = roundNumber.subtract(sorted.getFirst().getGrade());
+        //step 11
+        int bumpCount = lookup.getBumpCount(bump);
+        //step 12
+        BigDecimal takeOffNumber = getTakeoffNumber(formula, bumpCount);
+        //step 13
+        BigDecimal grading = roundNumber.subtract(takeOffNumber);
+        return new GradeResult(grading, gradingDescriptionMapper.getMapping(grading));
+    }
+
+    private BigDecimal calculateFormulaSum(List<SubGrade> sortedSubGrades, GradeFormulaDTO gradeFormulaDTO) {
+        if (sortedSubGrades.size() != 4) {
+            throw new SubGradeSizeExceeded("Expected=4, got=" + sortedSubGrades.size());
+        }
+
+
+        return sortedSubGrades.get(0).getGrade().multiply(gradeFormulaDTO.getGrade1())
+                .add(sortedSubGrades.get(1).getGrade().multiply(gradeFormulaDTO.getGrade2()))
+                .add(sortedSubGrades.get(2).getGrade().multiply(gradeFormulaDTO.getGrade3()))
+                .add(sortedSubGrades.get(3).getGrade().multiply(gradeFormulaDTO.getGrade4()));
+    }
+
+    static BigDecimal getTakeoffNumber(Formulas formulas, int bumpCount) {
+
+        if (Objects.requireNonNull(formulas) == Formulas.CORNERS || formulas == Formulas.SURFACE_AND_EDGES) {
+            if (bumpCount >= 2) {
+                return new BigDecimal(bumpCount - 2)
+                        .setScale(2, RoundingMode.HALF_EVEN)
+                        .divide(BigDecimal.TWO, RoundingMode.HALF_EVEN);
+            } else {
+                return BigDecimal.ZERO;
+            }
+        } else if (formulas == Formulas.CENTERING) {
+            if (bumpCount >= 4) {
+                return new BigDecimal(bumpCount - 4)
+                        .setScale(2, RoundingMode.HALF_EVEN)
+                        .divide(BigDecimal.TWO, RoundingMode.HALF_EVEN);
+            } else {
+                return BigDecimal.ZERO;
+            }
+        }
+        return BigDecimal.ZERO;
+    }
+
+    private List<SubGrade> getSorted(Set<SubGrade> toGrade) {
+        return toGrade.stream()
+                .sorted(Comparator.comparing(SubGrade::getGrade))
+                .toList();
+    }
+
+    private BigDecimal calculateDiffValue(List<SubGrade> sortedSubGrades) {
+        return sortedSubGrades.get(1).getGrade().subtract(sortedSubGrades.get(0).getGrade());
+    }
+}
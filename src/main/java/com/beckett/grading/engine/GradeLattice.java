@@ -0,0 +1,113 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeResult;
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Precomputed final grades for every combination of the four sub grades (1 thru 10 with increments of .5).
+ * The table is built with the regular step by step calculation against the current reference data snapshot
+ * and swapped in as a whole, so readers either see the old or the new table, never a partial one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradeLattice {
+
+    static final int STEPS = 19;
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+
+    private final GradeCalculator gradeCalculator;
+
+    @Value("${grading.calc.lattice.enabled:true}")
+    private boolean enabled;
+
+    private volatile GradeResult[] table;
+
+    @EventListener
+    public void onGradeReferenceReloaded(GradeReferenceReloadedEvent event) {
+        if (enabled) {
+            rebuild(event.snapshot());
+        }
+    }
+
+    public synchronized void rebuild(GradeReferenceSnapshot snapshot) {
+        try {
+            long start = System.currentTimeMillis();
+            table = build(snapshot);
+            log.info("Grade lattice built for reference data version {} in {} ms", snapshot.getVersion(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Grade lattice build failed, keeping the previous table.", e);
+        }
+    }
+
+    /**
+     * Returns the precomputed result, or empty when the lattice is not available or the input is not a valid
+     * half step grade, in which case the caller falls back to the step by step calculation.
+     */
+    public Optional<GradeResult> lookup(String centering, String corners, String edges, String surface) {
+        GradeResult[] current = table;
+        if (!enabled || current == null) {
+            return Optional.empty();
+        }
+        int c = toStep(centering);
+        int co = toStep(corners);
+        int e = toStep(edges);
+        int s = toStep(surface);
+        if (c < 0 || co < 0 || e < 0 || s < 0) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current[index(c, co, e, s)]);
+    }
+
+    GradeResult[] build(GradeReferenceLookup lookup) {
+        GradeResult[] result = new GradeResult[STEPS * STEPS * STEPS * STEPS];
+        for (int c = 0; c < STEPS; c++) {
+            for (int co = 0; co < STEPS; co++) {
+                for (int e = 0; e < STEPS; e++) {
+                    for (int s = 0; s < STEPS; s++) {
+                        try {
+                            result[index(c, co, e, s)] = gradeCalculator.calculate(
+                                    toGrade(c), toGrade(co), toGrade(e), toGrade(s), lookup);
+                        } catch (RuntimeException ex) {
+                            // left empty so the request goes through the regular path and gets the same error
+                            log.debug("No lattice entry for {}/{}/{}/{}: {}", toGrade(c), toGrade(co), toGrade(e), toGrade(s), ex.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    static int index(int centering, int corners, int edges, int surface) {
+        return ((centering * STEPS + corners) * STEPS + edges) * STEPS + surface;
+    }
+
+    static String toGrade(int step) {
+        return new BigDecimal(step + 2).multiply(HALF).toPlainString();
+    }
+
+    static int toStep(String grade) {
+        if (StringUtils.isBlank(grade)) {
+            return -1;
+        }
+        try {
+            BigDecimal doubled = new BigDecimal(grade).multiply(BigDecimal.TWO);
+            if (doubled.stripTrailingZeros().scale() > 0) {
+                return -1;
+            }
+            int step = doubled.intValueExact() - 2;
+            return step >= 0 && step < STEPS ? step : -1;
+        } catch (NumberFormatException | ArithmeticException e) {
+            return -1;
+        }
+    }
+}
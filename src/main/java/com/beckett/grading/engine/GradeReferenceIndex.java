@@ -0,0 +1,104 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.repository.GradeFormulaRepository;
+import com.beckett.grading.repository.GradeRoundNumberRepository;
+import com.beckett.grading.repository.TakeOffReferenceRepository;
+import com.beckett.grading.utils.GradeFormulaMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Holds the current {@link GradeReferenceSnapshot} and answers the calc lookups from it, falling back to the
+ * repositories until the first snapshot is loaded. Reloads swap the snapshot reference, readers are never blocked.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradeReferenceIndex implements GradeReferenceLookup {
+
+    private final GradeFormulaRepository gradeFormulaRepository;
+    private final GradeRoundNumberRepository gradeRoundNumberRepository;
+    private final TakeOffReferenceRepository takeOffReferenceRepository;
+    private final GradeFormulaMapper gradeFormulaMapper;
+    private final RepositoryGradeReferenceLookup repositoryGradeReferenceLookup;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    @Value("${grading.reference.index.enabled:true}")
+    private boolean enabled;
+
+    private volatile GradeReferenceSnapshot snapshot;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${grading.reference.reload-interval-ms:300000}",
+            initialDelayString = "${grading.reference.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    /**
+     * Loads the three reference tables and publishes a new snapshot when their content changed.
+     * Returns the snapshot in use after the reload.
+     */
+    public synchronized Optional<GradeReferenceSnapshot> reload() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            GradeReferenceSnapshot current = snapshot;
+            GradeReferenceSnapshot loaded = GradeReferenceSnapshot.of(
+                    current == null ? 1 : current.getVersion() + 1,
+                    gradeFormulaRepository.findAll(),
+                    gradeRoundNumberRepository.findAll(),
+                    takeOffReferenceRepository.findAll(),
+                    gradeFormulaMapper);
+            if (loaded.hasSameContentAs(current)) {
+                return Optional.of(current);
+            }
+            snapshot = loaded;
+            log.info("Grade reference data loaded, version: {}", loaded.getVersion());
+            applicationEventPublisher.publishEvent(new GradeReferenceReloadedEvent(loaded));
+        } catch (Exception e) {
+            log.error("Grade reference data reload failed, keeping the previous snapshot.", e);
+        }
+        return current();
+    }
+
+    public Optional<GradeReferenceSnapshot> current() {
+        return Optional.ofNullable(snapshot);
+    }
+
+    @Override
+    public GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue) {
+        GradeReferenceSnapshot current = snapshot;
+        return current != null ? current.findGradeFormulas(name, diffValue)
+                : repositoryGradeReferenceLookup.findGradeFormulas(name, diffValue);
+    }
+
+    @Override
+    public BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum) {
+        GradeReferenceSnapshot current = snapshot;
+        return current != null ? current.getGradeNumberByFormulaSum(formulaSum)
+                : repositoryGradeReferenceLookup.getGradeNumberByFormulaSum(formulaSum);
+    }
+
+    @Override
+    public int getBumpCount(BigDecimal bump) {
+        GradeReferenceSnapshot current = snapshot;
+        return current != null ? current.getBumpCount(bump)
+                : repositoryGradeReferenceLookup.getBumpCount(bump);
+    }
+}
@@ -0,0 +1,15 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeFormulaDTO;
+
+import java.math.BigDecimal;
+
+/**
+ * Range lookups against the grade formula, grade round number and take off reference tables
+ * used by the final grade calculation.
+ */
+public interface GradeReferenceLookup {
+    GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue);
+    BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum);
+    int getBumpCount(BigDecimal bump);
+}
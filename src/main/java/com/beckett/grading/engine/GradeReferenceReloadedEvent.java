@@ -0,0 +1,6 @@
+package com.beckett.grading.engine;
+
+/**
+ * Published whenever a new {@link GradeReferenceSnapshot} with different content replaces the current one.
+ */
+public record GradeReferenceReloadedEvent(GradeReferenceSnapshot snapshot) {}
@@ -0,0 +1,186 @@
+package com.beckett.grading.engine;
+
+import com.beckett.common.exception.FormulaNotFoundException;
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.entity.GradeFormula;
+import com.beckett.grading.entity.GradeRoundNumber;
+import com.beckett.grading.entity.TakeOffReference;
+import com.beckett.grading.utils.GradeFormulaMapper;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Immutable, versioned copy of the grade formula, grade round number and take off reference tables, held in
+ * sorted arrays so every lookup is a binary search. Answers exactly what the repository range queries answer.
+ */
+public class GradeReferenceSnapshot implements GradeReferenceLookup {
+
+    @Getter
+    private final long version;
+    private final List<Object> signature;
+    private final Map<String, IntervalIndex<GradeFormulaDTO>> gradeFormulas;
+    private final IntervalIndex<BigDecimal> gradeRoundNumbers;
+    private final BigDecimal[] takeOffNumbers;
+    private final FixedPointReferenceTables fixedPointTables;
+
+    private GradeReferenceSnapshot(long version, List<Object> signature,
+                                   Map<String, IntervalIndex<GradeFormulaDTO>> gradeFormulas,
+                                   IntervalIndex<BigDecimal> gradeRoundNumbers,
+                                   BigDecimal[] takeOffNumbers,
+                                   FixedPointReferenceTables fixedPointTables) {
+        this.version = version;
+        this.signature = signature;
+        this.gradeFormulas = gradeFormulas;
+        this.gradeRoundNumbers = gradeRoundNumbers;
+        this.takeOffNumbers = takeOffNumbers;
+        this.fixedPointTables = fixedPointTables;
+    }
+
+    public static GradeReferenceSnapshot of(long version,
+                                            List<GradeFormula> formulas,
+                                            List<GradeRoundNumber> roundNumbers,
+                                            List<TakeOffReference> takeOffReferences,
+                                            GradeFormulaMapper gradeFormulaMapper) {
+        List<Object> signature = new ArrayList<>();
+        List<GradeFormulaDTO> dtos = new ArrayList<>();
+        Map<String, List<Interval<GradeFormulaDTO>>> formulasByName = new HashMap<>();
+        for (GradeFormula formula : formulas) {
+            GradeFormulaDTO dto = gradeFormulaMapper.map(formula);
+            dtos.add(dto);
+            signature.addAll(Arrays.asList(formula.getGradeName(), formula.getGradeBeginning(), formula.getGradeEnding(),
+                    dto.getGrade1(), dto.getGrade2(), dto.getGrade3(), dto.getGrade4()));
+            formulasByName.computeIfAbsent(formula.getGradeName(), name -> new ArrayList<>())
+                    .add(new Interval<>(formula.getGradeBeginning(), formula.getGradeEnding(), dto));
+        }
+        Map<String, IntervalIndex<GradeFormulaDTO>> formulaIndex = new HashMap<>();
+        formulasByName.forEach((name, intervals) -> formulaIndex.put(name, new IntervalIndex<>(intervals)));
+
+        List<Interval<BigDecimal>> roundNumberIntervals = new ArrayList<>();
+        for (GradeRoundNumber roundNumber : roundNumbers) {
+            signature.addAll(Arrays.asList(roundNumber.getNumberBeginning(), roundNumber.getNumberEnding(), roundNumber.getNumber()));
+            roundNumberIntervals.add(new Interval<>(roundNumber.getNumberBeginning(), roundNumber.getNumberEnding(), roundNumber.getNumber()));
+        }
+
+        BigDecimal[] takeOffNumbers = takeOffReferences.stream()
+                .map(TakeOffReference::getNumber)
+                .filter(Objects::nonNull)
+                .sorted()
+                .toArray(BigDecimal[]::new);
+        signature.addAll(Arrays.asList(takeOffNumbers));
+
+        return new GradeReferenceSnapshot(version, Collections.unmodifiableList(signature),
+                formulaIndex, new IntervalIndex<>(roundNumberIntervals), takeOffNumbers,
+                FixedPointReferenceTables.of(dtos, roundNumbers, takeOffReferences));
+    }
+
+    /**
+     * Scaled long copy of the tables, null when the data can't be represented exactly.
+     */
+    FixedPointReferenceTables getFixedPointTables() {
+        return fixedPointTables;
+    }
+
+    public boolean hasSameContentAs(GradeReferenceSnapshot other) {
+        return other != null && signature.equals(other.signature);
+    }
+
+    @Override
+    public GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue) {
+        IntervalIndex<GradeFormulaDTO> index = gradeFormulas.get(name);
+        if (index == null) {
+            throw new FormulaNotFoundException();
+        }
+        GradeFormulaDTO formula = index.find(diffValue);
+        if (formula == null) {
+            throw new FormulaNotFoundException();
+        }
+        return formula;
+    }
+
+    @Override
+    public BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum) {
+        BigDecimal number = gradeRoundNumbers.find(formulaSum);
+        return number != null ? number : new BigDecimal(10);
+    }
+
+    @Override
+    public int getBumpCount(BigDecimal bump) {
+        // number of take off references with number <= bump, i.e. the upper bound position
+        int low = 0;
+        int high = takeOffNumbers.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (takeOffNumbers[mid].compareTo(bump) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private record Interval<T>(BigDecimal beginning, BigDecimal ending, T value) {}
+
+    /**
+     * Intervals sorted by beginning. When the table has overlapping ranges the "find first" answer depends on the
+     * row order, so in that case the rows are scanned in their original order just like the query does.
+     */
+    private static final class IntervalIndex<T> {
+        private final List<Interval<T>> rowOrder;
+        private final BigDecimal[] beginnings;
+        private final List<Interval<T>> sorted;
+        private final boolean overlapping;
+
+        IntervalIndex(List<Interval<T>> intervals) {
+            // rows with a null or inverted bound never match the range query
+            this.rowOrder = intervals.stream()
+                    .filter(interval -> interval.beginning() != null && interval.ending() != null
+                            && interval.beginning().compareTo(interval.ending()) <= 0)
+                    .toList();
+            this.sorted = rowOrder.stream()
+                    .sorted(Comparator.comparing(Interval::beginning))
+                    .toList();
+            this.beginnings = sorted.stream().map(Interval::beginning).toArray(BigDecimal[]::new);
+            boolean overlaps = false;
+            for (int i = 1; i < sorted.size(); i++) {
+                if (sorted.get(i).beginning().compareTo(sorted.get(i - 1).ending()) <= 0) {
+                    overlaps = true;
+                    break;
+                }
+            }
+            this.overlapping = overlaps;
+        }
+
+        T find(BigDecimal key) {
+            if (overlapping) {
+                return rowOrder.stream()
+                        .filter(interval -> contains(interval, key))
+                        .findFirst()
+                        .map(Interval::value)
+                        .orElse(null);
+            }
+            // last interval starting at or before the key
+            int low = 0;
+            int high = beginnings.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (beginnings[mid].compareTo(key) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            if (low == 0) {
+                return null;
+            }
+            Interval<T> candidate = sorted.get(low - 1);
+            return contains(candidate, key) ? candidate.value() : null;
+        }
+
+        private static <T> boolean contains(Interval<T> interval, BigDecimal key) {
+            return interval.beginning().compareTo(key) <= 0 && interval.ending().compareTo(key) >= 0;
+        }
+    }
+}
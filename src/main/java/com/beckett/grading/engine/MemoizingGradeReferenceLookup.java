@@ -0,0 +1,40 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeFormulaDTO;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers the answers of the wrapped lookup for the lifetime of one batch, so identical formula, round number
+ * and take off questions only go to the delegate once. Not thread safe, create one per batch.
+ */
+public class MemoizingGradeReferenceLookup implements GradeReferenceLookup {
+
+    private final GradeReferenceLookup delegate;
+    private final Map<String, GradeFormulaDTO> gradeFormulas = new HashMap<>();
+    private final Map<BigDecimal, BigDecimal> gradeNumbers = new HashMap<>();
+    private final Map<BigDecimal, Integer> bumpCounts = new HashMap<>();
+
+    public MemoizingGradeReferenceLookup(GradeReferenceLookup delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue) {
+        return gradeFormulas.computeIfAbsent(name + ":" + diffValue.stripTrailingZeros().toPlainString(),
+                key -> delegate.findGradeFormulas(name, diffValue));
+    }
+
+    @Override
+    public BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum) {
+        return gradeNumbers.computeIfAbsent(formulaSum.stripTrailingZeros(),
+                key -> delegate.getGradeNumberByFormulaSum(formulaSum));
+    }
+
+    @Override
+    public int getBumpCount(BigDecimal bump) {
+        return bumpCounts.computeIfAbsent(bump.stripTrailingZeros(), key -> delegate.getBumpCount(bump));
+    }
+}
@@ -0,0 +1,106 @@
+package com.beckett.grading.engine;
+
+import com.beckett.order.entity.CardSuborder;
+import com.beckett.order.entity.CardSuborderItem;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.order.entity.Suborder;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.ParseException;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Decides whether a finalized job needs QC. Rules are SpEL conditions declared in configuration, either under
+ * grading.qc.job-rules (evaluated once against the job, its sub orders and service level) or grading.qc.item-rules
+ * (evaluated against each item of the job). Job rules run first, the first rule that holds decides. Adding a rule is
+ * a matter of adding a property.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QcRuleEngine {
+
+    public enum Scope { JOB, ITEM }
+
+    public record QcRule(String name, Scope scope, Expression condition) {}
+
+    /**
+     * Root object of the job rules, a bean rather than a record so the rules can read it through getters.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class JobFacts {
+        private final CardSuborderJob job;
+        private final CardSuborder cardSuborder;
+        private final Suborder suborder;
+        private final ServiceLevel serviceLevel;
+    }
+
+    private final Environment environment;
+    private final ExpressionParser parser = new SpelExpressionParser();
+    private final EvaluationContext evaluationContext = SimpleEvaluationContext.forReadOnlyDataBinding()
+            .withInstanceMethods()
+            .build();
+
+    private List<QcRule> jobRules = List.of();
+    private List<QcRule> itemRules = List.of();
+
+    @PostConstruct
+    public void load() {
+        jobRules = rules(Scope.JOB, "grading.qc.job-rules");
+        itemRules = rules(Scope.ITEM, "grading.qc.item-rules");
+        log.info("QC rules loaded, job level: {}, item level: {}",
+                jobRules.stream().map(QcRule::name).toList(), itemRules.stream().map(QcRule::name).toList());
+    }
+
+    /**
+     * The first rule that holds for the job or one of its items.
+     */
+    public Optional<QcRule> firstMatch(JobFacts jobFacts, List<CardSuborderItem> items) {
+        for (QcRule rule : jobRules) {
+            if (holds(rule, jobFacts)) {
+                return Optional.of(rule);
+            }
+        }
+        for (CardSuborderItem item : items) {
+            for (QcRule rule : itemRules) {
+                if (holds(rule, item)) {
+                    return Optional.of(rule);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean holds(QcRule rule, Object root) {
+        return Boolean.TRUE.equals(rule.condition().getValue(evaluationContext, root, Boolean.class));
+    }
+
+    private List<QcRule> rules(Scope scope, String prefix) {
+        Map<String, String> declared = Binder.get(environment)
+                .bind(prefix, Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        List<QcRule> rules = new ArrayList<>();
+        new TreeMap<>(declared).forEach((name, condition) -> {
+            try {
+                rules.add(new QcRule(name, scope, parser.parseExpression(condition)));
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Invalid QC rule " + prefix + "." + name + ": " + condition, e);
+            }
+        });
+        return List.copyOf(rules);
+    }
+}
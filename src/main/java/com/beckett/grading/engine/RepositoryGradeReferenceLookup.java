@@ -0,0 +1,45 @@
+package com.beckett.grading.engine;
+
+import com.beckett.common.exception.FormulaNotFoundException;
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.entity.GradeFormula;
+import com.beckett.grading.entity.GradeRoundNumber;
+import com.beckett.grading.repository.GradeFormulaRepository;
+import com.beckett.grading.repository.GradeRoundNumberRepository;
+import com.beckett.grading.repository.TakeOffReferenceRepository;
+import com.beckett.grading.utils.GradeFormulaMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+@RequiredArgsConstructor
+public class RepositoryGradeReferenceLookup implements GradeReferenceLookup {
+
+    private final GradeFormulaRepository gradeFormulaRepository;
+    private final GradeRoundNumberRepository gradeRoundNumberRepository;
+    private final TakeOffReferenceRepository takeOffReferenceRepository;
+    private final GradeFormulaMapper gradeFormulaMapper;
+
+    @Override
+    public GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue) {
+        GradeFormula formula = gradeFormulaRepository
+                .findFirstByGradeNameAndGradeBeginningLessThanEqualAndGradeEndingGreaterThanEqual(name, diffValue, diffValue)
+                .orElseThrow(FormulaNotFoundException::new);
+        return gradeFormulaMapper.map(formula);
+    }
+
+    @Override
+    public BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum) {
+        return gradeRoundNumberRepository
+                .findFirstByNumberEndingGreaterThanEqualAndNumberBeginningLessThanEqual(formulaSum, formulaSum)
+                .map(GradeRoundNumber::getNumber)
+                .orElseGet(() -> new BigDecimal(10));
+    }
+
+    @Override
+    public int getBumpCount(BigDecimal bump) {
+        return takeOffReferenceRepository.countByNumberLessThanEqual(bump);
+    }
+}
@@ -0,0 +1,29 @@
+package com.beckett.grading.entity;
+
+import com.beckett.shdsvc.enums.DealStageEnum;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last deal stage pushed to the CRM for a deal, updates that would not move the deal forward are skipped.
+ */
+@Entity
+@Table(name = "crm_deal_sync")
+@Getter
+@Setter
+public class CrmDealSync {
+
+    @Id
+    @Column(name = "deal_id")
+    private String dealId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "deal_stage", nullable = false)
+    private DealStageEnum dealStage;
+
+    @Column(name = "synced_on", nullable = false)
+    private LocalDateTime syncedOn;
+}
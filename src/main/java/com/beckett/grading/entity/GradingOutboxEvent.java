@@ -0,0 +1,57 @@
+package com.beckett.grading.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Side effect of a grading write, stored in the same transaction as the grades and run later by the outbox dispatcher.
+ */
+@Entity
+@Table(name = "grading_outbox", indexes = {
+        @Index(name = "idx_grading_outbox_status", columnList = "status, next_attempt_on, grading_outbox_id"),
+        @Index(name = "idx_grading_outbox_dedup", columnList = "dedup_key, created_on")})
+@Getter
+@Setter
+public class GradingOutboxEvent {
+
+    public enum Status { PENDING, IN_PROGRESS, DONE, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "grading_outbox_id")
+    private Long id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private Status status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_on", nullable = false)
+    private LocalDateTime nextAttemptOn;
+
+    @Column(name = "claimed_on")
+    private LocalDateTime claimedOn;
+
+    @Column(name = "completed_on")
+    private LocalDateTime completedOn;
+
+    @Column(name = "dedup_key")
+    private String dedupKey;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_on", nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,86 @@
+package com.beckett.grading.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, query optimized copy of a grading work queue row, one per card sub order job. Kept up to date by the
+ * grading write paths so the work queue endpoints don't need to walk the job / sub order / order / user graph.
+ */
+@Entity
+@Table(name = "grading_queue", indexes = {
+        @Index(name = "idx_grading_queue_grader", columnList = "grader_id, is_queue_eligible, due_date, card_suborder_job_id"),
+        @Index(name = "idx_grading_queue_eligible", columnList = "is_queue_eligible, due_date, card_suborder_job_id"),
+        @Index(name = "idx_grading_queue_order", columnList = "order_id")})
+@Getter
+@Setter
+public class GradingQueueEntry {
+
+    @Id
+    @Column(name = "card_suborder_job_id")
+    private Long cardSubOrderJobId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "suborder_id")
+    private Long subOrderId;
+
+    @Column(name = "card_suborder_id")
+    private Long cardSubOrderId;
+
+    @Column(name = "order_no")
+    private String orderNo;
+
+    @Column(name = "suborder_no")
+    private String subOrderNo;
+
+    @Column(name = "job_no")
+    private String jobNo;
+
+    @Column(name = "total_no_of_items")
+    private Integer totalNoOfItems;
+
+    @Column(name = "due_date")
+    private LocalDate dueDate;
+
+    @Column(name = "service_level_id")
+    private Long serviceLevelId;
+
+    @Column(name = "service_level")
+    private String serviceLevel;
+
+    @Column(name = "grader_id")
+    private Long graderId;
+
+    @Column(name = "grader_email")
+    private String graderEmail;
+
+    @Column(name = "graded_by")
+    private String gradedBy;
+
+    @Column(name = "user_role")
+    private String userRole;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "location")
+    private String location;
+
+    @Column(name = "grading_status")
+    private String gradingStatus;
+
+    @Column(name = "order_status")
+    private String orderStatus;
+
+    @Column(name = "is_queue_eligible")
+    private Boolean queueEligible;
+
+    @Column(name = "refreshed_on")
+    private LocalDateTime refreshedOn;
+}
@@ -0,0 +1,57 @@
+package com.beckett.grading.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change of a grading work queue row, recorded with the change itself and streamed to the work queue subscribers.
+ * The id doubles as the event id clients resume from.
+ */
+@Entity
+@Table(name = "grading_queue_event", indexes = {
+        @Index(name = "idx_grading_queue_event_created", columnList = "created_on")})
+@Getter
+@Setter
+public class GradingQueueEvent {
+
+    public enum Type { QUEUED, ASSIGNED, STATUS_CHANGED, LOCATION_CHANGED, REMOVED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "grading_queue_event_id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private Type eventType;
+
+    @Column(name = "card_suborder_job_id", nullable = false)
+    private Long cardSubOrderJobId;
+
+    @Column(name = "job_no")
+    private String jobNo;
+
+    @Column(name = "grader_id")
+    private Long graderId;
+
+    @Column(name = "previous_grader_id")
+    private Long previousGraderId;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    @Column(name = "previous_location_id")
+    private Long previousLocationId;
+
+    @Column(name = "service_level_id")
+    private Long serviceLevelId;
+
+    @Column(name = "grading_status")
+    private String gradingStatus;
+
+    @Column(name = "created_on", nullable = false)
+    private LocalDateTime createdOn;
+}
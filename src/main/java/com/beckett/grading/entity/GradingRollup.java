@@ -0,0 +1,48 @@
+package com.beckett.grading.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Graded / total counter of a card sub order (its jobs) or an order (its card sub orders). completedOn is set by
+ * the one roll-up that brings graded up to total.
+ */
+@Entity
+@Table(name = "grading_rollup")
+@Getter
+@Setter
+public class GradingRollup {
+
+    public enum Scope { SUBORDER, ORDER }
+
+    @Embeddable
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "scope")
+        private Scope scope;
+
+        @Column(name = "scope_id")
+        private Long scopeId;
+    }
+
+    @EmbeddedId
+    private Key key;
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    @Column(name = "graded", nullable = false)
+    private int graded;
+
+    @Column(name = "completed_on")
+    private LocalDateTime completedOn;
+}
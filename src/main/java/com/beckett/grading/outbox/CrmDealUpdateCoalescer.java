@@ -0,0 +1,157 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.grading.entity.CrmDealSync;
+import com.beckett.grading.entity.GradingOutboxEvent;
+import com.beckett.grading.repository.CrmDealSyncRepository;
+import com.beckett.grading.repository.GradingOutboxEventRepository;
+import com.beckett.grading.service.GradingSideEffectService;
+import com.beckett.grading.utils.GradingTaskExecutor;
+import com.beckett.shdsvc.enums.DealStageEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Sends the CRM_DEAL_UPDATE events of a dispatch round as one call per deal carrying the furthest stage asked for,
+ * and drops the call when the CRM already has that stage or a later one. Deals are spread over at most
+ * flush-concurrency lanes. Stages are ordered by their DealStageEnum declaration order.
+ */
+@Slf4j
+@Component
+public class CrmDealUpdateCoalescer {
+
+    private static final String METRIC = "grading.crm.deal-updates";
+
+    private final GradingOutbox gradingOutbox;
+    private final GradingOutboxEventRepository gradingOutboxEventRepository;
+    private final CrmDealSyncRepository crmDealSyncRepository;
+    private final GradingSideEffectService gradingSideEffectService;
+    private final GradingTaskExecutor gradingTaskExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter skipped;
+    private final Counter failed;
+
+    @Value("${grading.crm.flush-concurrency:4}")
+    private int flushConcurrency;
+
+    @Value("${grading.crm.flush-timeout:PT2M}")
+    private Duration flushTimeout;
+
+    public CrmDealUpdateCoalescer(GradingOutbox gradingOutbox,
+                                  GradingOutboxEventRepository gradingOutboxEventRepository,
+                                  CrmDealSyncRepository crmDealSyncRepository,
+                                  GradingSideEffectService gradingSideEffectService,
+                                  GradingTaskExecutor gradingTaskExecutor,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.gradingOutbox = gradingOutbox;
+        this.gradingOutboxEventRepository = gradingOutboxEventRepository;
+        this.crmDealSyncRepository = crmDealSyncRepository;
+        this.gradingSideEffectService = gradingSideEffectService;
+        this.gradingTaskExecutor = gradingTaskExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sent = meterRegistry.counter(METRIC, "outcome", "sent");
+        this.coalesced = meterRegistry.counter(METRIC, "outcome", "coalesced");
+        this.skipped = meterRegistry.counter(METRIC, "outcome", "skipped");
+        this.failed = meterRegistry.counter(METRIC, "outcome", "failed");
+    }
+
+    /**
+     * Flushes the claimed deal updates and returns the events that failed with their error, everything else is
+     * marked done.
+     */
+    Map<GradingOutboxEvent, RuntimeException> flush(List<GradingOutboxEvent> events) {
+        Map<GradingOutboxEvent, RuntimeException> failures = Collections.synchronizedMap(new LinkedHashMap<>());
+        Map<String, DealUpdate> updates = new LinkedHashMap<>();
+        for (GradingOutboxEvent event : events) {
+            try {
+                OutboxPayloads.DealStage payload = gradingOutbox.read(event, OutboxPayloads.DealStage.class);
+                updates.computeIfAbsent(payload.dealId(), DealUpdate::new).add(event, payload.dealStage());
+            } catch (RuntimeException e) {
+                failures.put(event, e);
+            }
+        }
+        if (updates.isEmpty()) {
+            return failures;
+        }
+
+        List<List<DealUpdate>> lanes = new ArrayList<>();
+        int laneCount = Math.max(1, Math.min(flushConcurrency, updates.size()));
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        int next = 0;
+        for (DealUpdate update : updates.values()) {
+            lanes.get(next++ % laneCount).add(update);
+        }
+        gradingTaskExecutor.runAll(flushTimeout, lanes.stream()
+                .map(lane -> (Runnable) () -> lane.forEach(update -> send(update, failures)))
+                .toArray(Runnable[]::new));
+        return failures;
+    }
+
+    private void send(DealUpdate update, Map<GradingOutboxEvent, RuntimeException> failures) {
+        try {
+            Optional<DealStageEnum> synced = crmDealSyncRepository.findById(update.dealId).map(CrmDealSync::getDealStage);
+            if (synced.isPresent() && synced.get().ordinal() >= update.stage.ordinal()) {
+                log.info("Deal {} is already at {}, skipping update to {}", update.dealId, synced.get(), update.stage);
+                skipped.increment(update.events.size());
+            } else {
+                gradingSideEffectService.updateDeal(update.dealId, update.stage);
+                sent.increment();
+                coalesced.increment(update.events.size() - 1d);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                if (synced.isEmpty() || synced.get().ordinal() < update.stage.ordinal()) {
+                    CrmDealSync crmDealSync = new CrmDealSync();
+                    crmDealSync.setDealId(update.dealId);
+                    crmDealSync.setDealStage(update.stage);
+                    crmDealSync.setSyncedOn(LocalDateTime.now());
+                    crmDealSyncRepository.save(crmDealSync);
+                }
+                int done = gradingOutboxEventRepository.markAllDone(update.events.stream().map(GradingOutboxEvent::getId).toList(),
+                        update.claimedOn(), LocalDateTime.now());
+                if (done < update.events.size()) {
+                    log.warn("{} of {} updates of deal {} lost their claim", update.events.size() - done, update.events.size(), update.dealId);
+                }
+            });
+        } catch (RuntimeException e) {
+            failed.increment(update.events.size());
+            update.events.forEach(event -> failures.put(event, e));
+        }
+    }
+
+    private static final class DealUpdate {
+        private final String dealId;
+        private final List<GradingOutboxEvent> events = new ArrayList<>();
+        private DealStageEnum stage;
+
+        private DealUpdate(String dealId) {
+            this.dealId = dealId;
+        }
+
+        private void add(GradingOutboxEvent event, DealStageEnum requested) {
+            events.add(event);
+            if (stage == null || requested.ordinal() > stage.ordinal()) {
+                stage = requested;
+            }
+        }
+
+        /**
+         * The events of a dispatch round come from one claim and share its claimed_on.
+         */
+        private LocalDateTime claimedOn() {
+            return events.get(0).getClaimedOn();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.grading.entity.GradingOutboxEvent;
+import com.beckett.grading.repository.GradingOutboxEventRepository;
+import com.beckett.grading.service.GradingSideEffectService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sends the SUBORDER_GRADED_EMAIL events of a dispatch round once per template + recipient + submission id, in
+ * chunks of batch-size requests in flight on the notification client's async pool. Duplicates in the round are
+ * completed together with the email that was sent for them.
+ */
+@Slf4j
+@Component
+public class EmailBatchSender {
+
+    private static final String METRIC = "grading.emails";
+
+    private final GradingOutbox gradingOutbox;
+    private final GradingOutboxEventRepository gradingOutboxEventRepository;
+    private final GradingSideEffectService gradingSideEffectService;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sent;
+    private final Counter deduplicated;
+    private final Counter failed;
+
+    @Value("${grading.email.batch-size:20}")
+    private int batchSize;
+
+    @Value("${grading.email.send-timeout:PT30S}")
+    private Duration sendTimeout;
+
+    public EmailBatchSender(GradingOutbox gradingOutbox,
+                            GradingOutboxEventRepository gradingOutboxEventRepository,
+                            GradingSideEffectService gradingSideEffectService,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.gradingOutbox = gradingOutbox;
+        this.gradingOutboxEventRepository = gradingOutboxEventRepository;
+        this.gradingSideEffectService = gradingSideEffectService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sent = meterRegistry.counter(METRIC, "outcome", "sent");
+        this.deduplicated = meterRegistry.counter(METRIC, "outcome", "deduplicated");
+        this.failed = meterRegistry.counter(METRIC, "outcome", "failed");
+    }
+
+    /**
+     * Sends the claimed emails and returns the events that failed with their error, everything else is marked done.
+     */
+    Map<GradingOutboxEvent, RuntimeException> send(List<GradingOutboxEvent> events) {
+        Map<GradingOutboxEvent, RuntimeException> failures = new LinkedHashMap<>();
+        Map<String, Email> emails = new LinkedHashMap<>();
+        for (GradingOutboxEvent event : events) {
+            try {
+                OutboxPayloads.SuborderGradedEmail payload = gradingOutbox.read(event, OutboxPayloads.SuborderGradedEmail.class);
+                emails.computeIfAbsent(payload.dedupKey(), key -> new Email(payload)).events.add(event);
+            } catch (RuntimeException e) {
+                failures.put(event, e);
+            }
+        }
+
+        List<Email> pending = new ArrayList<>(emails.values());
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Email> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            chunk.forEach(email -> email.future = start(email.payload));
+            chunk.forEach(email -> complete(email, failures));
+        }
+        return failures;
+    }
+
+    private CompletableFuture<Void> start(OutboxPayloads.SuborderGradedEmail payload) {
+        try {
+            return gradingSideEffectService.sendSuborderGradedEmailAsync(payload.suborderNo(), payload.invoiceNo(),
+                    payload.customerEmail(), payload.firstName());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void complete(Email email, Map<GradingOutboxEvent, RuntimeException> failures) {
+        try {
+            email.future.get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            sent.increment();
+            deduplicated.increment(email.events.size() - 1d);
+            transactionTemplate.executeWithoutResult(status -> {
+                int done = gradingOutboxEventRepository.markAllDone(email.events.stream().map(GradingOutboxEvent::getId).toList(),
+                        email.events.get(0).getClaimedOn(), LocalDateTime.now());
+                if (done < email.events.size()) {
+                    log.warn("{} of {} events of email {} lost their claim", email.events.size() - done, email.events.size(), email.payload.dedupKey());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(email, new IllegalStateException("Interrupted while sending " + email.payload.dedupKey(), e), failures);
+        } catch (ExecutionException e) {
+            fail(email, e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause()), failures);
+        } catch (TimeoutException e) {
+            fail(email, new IllegalStateException("Email " + email.payload.dedupKey() + " not sent within " + sendTimeout, e), failures);
+        } catch (RuntimeException e) {
+            fail(email, e, failures);
+        }
+    }
+
+    private void fail(Email email, RuntimeException failure, Map<GradingOutboxEvent, RuntimeException> failures) {
+        failed.increment(email.events.size());
+        email.events.forEach(event -> failures.put(event, failure));
+    }
+
+    private static final class Email {
+        private final OutboxPayloads.SuborderGradedEmail payload;
+        private final List<GradingOutboxEvent> events = new ArrayList<>();
+        private CompletableFuture<Void> future;
+
+        private Email(OutboxPayloads.SuborderGradedEmail payload) {
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.grading.entity.GradingOutboxEvent;
+import com.beckett.grading.repository.GradingOutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Records side effects in the caller's transaction, they run only if it commits.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GradingOutbox {
+
+    private final GradingOutboxEventRepository gradingOutboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType eventType, Object payload) {
+        enqueue(eventType, payload, Duration.ZERO);
+    }
+
+    /**
+     * Holds the event back for the given delay, e.g. to let updates of the same target pile up and be coalesced.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType eventType, Object payload, Duration delay) {
+        save(eventType, payload, delay, null);
+    }
+
+    /**
+     * Like enqueue, but records nothing when an event with the same dedup key was recorded within the dedup window
+     * and has not failed. Returns whether the event was recorded.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean enqueueOnce(OutboxEventType eventType, Object payload, Duration delay, String dedupKey, Duration dedupWindow) {
+        if (gradingOutboxEventRepository.existsByDedupKeyAndStatusNotAndCreatedOnAfter(
+                dedupKey, GradingOutboxEvent.Status.FAILED, LocalDateTime.now().minus(dedupWindow))) {
+            log.info("Skipping {} outbox event, {} was already recorded", eventType, dedupKey);
+            return false;
+        }
+        save(eventType, payload, delay, dedupKey);
+        return true;
+    }
+
+    private void save(OutboxEventType eventType, Object payload, Duration delay, String dedupKey) {
+        GradingOutboxEvent event = new GradingOutboxEvent();
+        event.setEventType(eventType.name());
+        event.setPayload(write(payload));
+        event.setDedupKey(dedupKey);
+        event.setStatus(GradingOutboxEvent.Status.PENDING);
+        event.setCreatedOn(LocalDateTime.now());
+        event.setNextAttemptOn(event.getCreatedOn().plus(delay));
+        gradingOutboxEventRepository.save(event);
+    }
+
+    <T> T read(GradingOutboxEvent event, Class<T> payloadType) {
+        try {
+            return objectMapper.readValue(event.getPayload(), payloadType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Unreadable " + event.getEventType() + " outbox payload: " + event.getPayload(), e);
+        }
+    }
+
+    private String write(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload can't be serialized: " + payload, e);
+        }
+    }
+}
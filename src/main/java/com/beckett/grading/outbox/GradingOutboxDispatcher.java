@@ -0,0 +1,188 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.grading.entity.GradingOutboxEvent;
+import com.beckett.grading.repository.GradingOutboxEventRepository;
+import com.beckett.grading.service.GradingSideEffectService;
+import com.beckett.grading.utils.GradingMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Polls the outbox and runs due events one by one, oldest first. An event's database work and its completion are
+ * committed together, a failure puts it back with an exponential backoff until max-attempts, then it stays FAILED
+ * for an operator to look at. CRM deal updates and emails of a round are handed to the CrmDealUpdateCoalescer and
+ * the EmailBatchSender as a group.
+ * Delivery is at least once: a call to the CRM or the email service may repeat if the process dies between the call
+ * and the commit. Completion and reschedule are fenced on the claim, so a dispatcher whose claim expired mid-run
+ * leaves the event to the one that took it over.
+ */
+@Slf4j
+@Component
+public class GradingOutboxDispatcher {
+
+    private final GradingOutboxEventRepository gradingOutboxEventRepository;
+    private final GradingOutbox gradingOutbox;
+    private final GradingSideEffectService gradingSideEffectService;
+    private final CrmDealUpdateCoalescer crmDealUpdateCoalescer;
+    private final EmailBatchSender emailBatchSender;
+    private final GradingMetrics gradingMetrics;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${grading.outbox.dispatcher.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grading.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${grading.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${grading.outbox.initial-backoff:PT10S}")
+    private Duration initialBackoff;
+
+    @Value("${grading.outbox.max-backoff:PT30M}")
+    private Duration maxBackoff;
+
+    @Value("${grading.outbox.claim-timeout:PT5M}")
+    private Duration claimTimeout;
+
+    @Value("${grading.outbox.done-retention:P7D}")
+    private Duration doneRetention;
+
+    public GradingOutboxDispatcher(GradingOutboxEventRepository gradingOutboxEventRepository,
+                                   GradingOutbox gradingOutbox,
+                                   GradingSideEffectService gradingSideEffectService,
+                                   CrmDealUpdateCoalescer crmDealUpdateCoalescer,
+                                   EmailBatchSender emailBatchSender,
+                                   GradingMetrics gradingMetrics,
+                                   PlatformTransactionManager transactionManager) {
+        this.gradingOutboxEventRepository = gradingOutboxEventRepository;
+        this.gradingOutbox = gradingOutbox;
+        this.gradingSideEffectService = gradingSideEffectService;
+        this.crmDealUpdateCoalescer = crmDealUpdateCoalescer;
+        this.emailBatchSender = emailBatchSender;
+        this.gradingMetrics = gradingMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${grading.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        List<GradingOutboxEvent> events = claim();
+        Map<String, List<GradingOutboxEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(GradingOutboxEvent::getEventType, LinkedHashMap::new, Collectors.toList()));
+        List<GradingOutboxEvent> dealUpdates = byType.remove(OutboxEventType.CRM_DEAL_UPDATE.name());
+        List<GradingOutboxEvent> emails = byType.remove(OutboxEventType.SUBORDER_GRADED_EMAIL.name());
+        byType.values().forEach(group -> group.forEach(this::run));
+        if (dealUpdates != null) {
+            crmDealUpdateCoalescer.flush(dealUpdates).forEach(this::fail);
+        }
+        if (emails != null) {
+            emailBatchSender.send(emails).forEach(this::fail);
+        }
+        if (!events.isEmpty()) {
+            log.info("Outbox dispatched {} events", events.size());
+        }
+    }
+
+    @Scheduled(cron = "${grading.outbox.cleanup-cron:0 30 3 * * *}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        Integer deleted = transactionTemplate.execute(status ->
+                gradingOutboxEventRepository.deleteDoneBefore(LocalDateTime.now().minus(doneRetention)));
+        log.info("Outbox cleanup removed {} completed events", deleted);
+    }
+
+    private List<GradingOutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            // claimed_on is the fencing token, keep it at a precision the column stores exactly
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            List<GradingOutboxEvent> claimable = gradingOutboxEventRepository.findClaimable(now, now.minus(claimTimeout), batchSize);
+            claimable.forEach(event -> {
+                event.setStatus(GradingOutboxEvent.Status.IN_PROGRESS);
+                event.setClaimedOn(now);
+            });
+            return gradingOutboxEventRepository.saveAll(claimable);
+        });
+    }
+
+    private void run(GradingOutboxEvent event) {
+        try {
+            gradingMetrics.record("outbox." + event.getEventType().toLowerCase(), metrics -> transactionTemplate.execute(status -> {
+                handle(event);
+                int done = gradingOutboxEventRepository.markDone(event.getId(), event.getClaimedOn(), LocalDateTime.now());
+                if (done == 0) {
+                    log.warn("Outbox event {} ({}) lost its claim while running, rolling its work back", event.getId(), event.getEventType());
+                    status.setRollbackOnly();
+                }
+                return done;
+            }));
+        } catch (RuntimeException e) {
+            fail(event, e);
+        }
+    }
+
+    private void fail(GradingOutboxEvent event, RuntimeException failure) {
+        log.warn("Outbox event {} ({}) failed on attempt {}", event.getId(), event.getEventType(), event.getAttempts() + 1, failure);
+        transactionTemplate.executeWithoutResult(status -> reschedule(event, failure));
+    }
+
+    private void handle(GradingOutboxEvent event) {
+        switch (OutboxEventType.valueOf(event.getEventType())) {
+            case SUBMIT_ROLLUP -> gradingSideEffectService.rollUpSubmitted(
+                    gradingOutbox.read(event, OutboxPayloads.Job.class).cardSuborderJobId());
+            case FINALIZE_ROLLUP -> gradingSideEffectService.rollUpFinalized(
+                    gradingOutbox.read(event, OutboxPayloads.Job.class).cardSuborderJobId());
+            case CARD_LABELS -> gradingSideEffectService.writeCardLabels(
+                    gradingOutbox.read(event, OutboxPayloads.Items.class).cardSuborderItemIds());
+            case CRM_DEAL_UPDATE -> {
+                OutboxPayloads.DealStage dealStage = gradingOutbox.read(event, OutboxPayloads.DealStage.class);
+                gradingSideEffectService.updateDeal(dealStage.dealId(), dealStage.dealStage());
+            }
+            case SUBORDER_GRADED_EMAIL -> {
+                OutboxPayloads.SuborderGradedEmail email = gradingOutbox.read(event, OutboxPayloads.SuborderGradedEmail.class);
+                gradingSideEffectService.sendSuborderGradedEmail(email.suborderNo(), email.invoiceNo(),
+                        email.customerEmail(), email.firstName());
+            }
+        }
+    }
+
+    private void reschedule(GradingOutboxEvent event, RuntimeException failure) {
+        int attempts = event.getAttempts() + 1;
+        boolean givingUp = attempts >= maxAttempts;
+        int updated = gradingOutboxEventRepository.reschedule(event.getId(), event.getClaimedOn(),
+                givingUp ? GradingOutboxEvent.Status.FAILED : GradingOutboxEvent.Status.PENDING, attempts,
+                givingUp ? event.getNextAttemptOn() : LocalDateTime.now().plus(backoff(attempts)),
+                abbreviate(String.valueOf(failure)));
+        if (updated == 0) {
+            log.warn("Outbox event {} ({}) lost its claim, leaving it to its current owner", event.getId(), event.getEventType());
+        } else if (givingUp) {
+            log.error("Outbox event {} ({}) gave up after {} attempts", event.getId(), event.getEventType(), attempts);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static String abbreviate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
@@ -0,0 +1,9 @@
+package com.beckett.grading.outbox;
+
+public enum OutboxEventType {
+    SUBMIT_ROLLUP,
+    FINALIZE_ROLLUP,
+    CARD_LABELS,
+    CRM_DEAL_UPDATE,
+    SUBORDER_GRADED_EMAIL
+}
@@ -0,0 +1,33 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.shdsvc.enums.DealStageEnum;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import static com.beckett.common.util.Constants.SUBORDER_GRADED_TEMPLATE_NAME;
+
+/**
+ * JSON payloads of the outbox events, ids only where the handler can reload the current state.
+ */
+public final class OutboxPayloads {
+
+    private OutboxPayloads() {}
+
+    public record Job(Long cardSuborderJobId) {}
+
+    public record Items(List<Long> cardSuborderItemIds) {}
+
+    public record DealStage(String dealId, DealStageEnum dealStage) {}
+
+    public record SuborderGradedEmail(String suborderNo, String invoiceNo, String customerEmail, String firstName) {
+
+        /**
+         * Template + recipient + submission id, one email per key is sent within the dedup window.
+         */
+        public String dedupKey() {
+            return SUBORDER_GRADED_TEMPLATE_NAME + ":" + Objects.toString(customerEmail, "").toLowerCase(Locale.ROOT) + ":" + suborderNo;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.beckett.grading.repository;
+
+import com.beckett.grading.entity.CrmDealSync;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrmDealSyncRepository extends JpaRepository<CrmDealSync, String> {
+}
@@ -0,0 +1,17 @@
+package com.beckett.grading.repository;
+
+import com.beckett.user.entity.Users;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reads a grader's active flag straight from the users table, without loading the user and its roles.
+ */
+@Repository
+public interface GraderStatusRepository extends JpaRepository<Users, Long> {
+
+    @Query("select count(u) > 0 from Users u where u.userId = :userId and u.active = true and u.deleted = false")
+    boolean isActive(@Param("userId") Long userId);
+}
@@ -0,0 +1,23 @@
+package com.beckett.grading.repository;
+
+import com.beckett.order.entity.CardSuborderItem;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Item reads of the grade write paths, the items come with their grade, job and card sub order in one query so
+ * applying a job's grades doesn't lazy load them item by item.
+ */
+@Repository
+public interface GradingItemRepository extends JpaRepository<CardSuborderItem, Long> {
+
+    @EntityGraph(attributePaths = {"cardSuborderItemGrade", "cardSuborderJob", "cardSuborderJob.cardSuborder"})
+    @Query("select i from CardSuborderItem i where i.cardSuborderItemId in :ids")
+    List<CardSuborderItem> findAllForGrading(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,52 @@
+package com.beckett.grading.repository;
+
+import com.beckett.grading.entity.GradingOutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GradingOutboxEventRepository extends JpaRepository<GradingOutboxEvent, Long> {
+
+    /**
+     * Due events plus in progress ones whose claim expired (e.g. the pod died), locked so concurrent dispatchers skip them.
+     */
+    @Query(value = "SELECT * FROM grading.grading_outbox " +
+            "WHERE (status = 'PENDING' AND next_attempt_on <= :now) OR (status = 'IN_PROGRESS' AND claimed_on < :claimExpiredBefore) " +
+            "ORDER BY grading_outbox_id LIMIT :batchSize FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<GradingOutboxEvent> findClaimable(@Param("now") LocalDateTime now,
+                                           @Param("claimExpiredBefore") LocalDateTime claimExpiredBefore,
+                                           @Param("batchSize") int batchSize);
+
+    boolean existsByDedupKeyAndStatusNotAndCreatedOnAfter(String dedupKey, GradingOutboxEvent.Status status, LocalDateTime createdAfter);
+
+    /**
+     * Completion and reschedule only apply while the event is still held by the claim that ran it, an update that
+     * finds no row means the claim expired and another dispatcher took the event over.
+     */
+    @Modifying
+    @Query("update GradingOutboxEvent e set e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.DONE, e.completedOn = :completedOn, e.attempts = e.attempts + 1 " +
+            "where e.id = :id and e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.IN_PROGRESS and e.claimedOn = :claimedOn")
+    int markDone(@Param("id") Long id, @Param("claimedOn") LocalDateTime claimedOn, @Param("completedOn") LocalDateTime completedOn);
+
+    @Modifying
+    @Query("update GradingOutboxEvent e set e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.DONE, e.completedOn = :completedOn, e.attempts = e.attempts + 1 " +
+            "where e.id in :ids and e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.IN_PROGRESS and e.claimedOn = :claimedOn")
+    int markAllDone(@Param("ids") Collection<Long> ids, @Param("claimedOn") LocalDateTime claimedOn, @Param("completedOn") LocalDateTime completedOn);
+
+    @Modifying
+    @Query("update GradingOutboxEvent e set e.status = :status, e.attempts = :attempts, e.nextAttemptOn = :nextAttemptOn, e.lastError = :lastError, e.claimedOn = null " +
+            "where e.id = :id and e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.IN_PROGRESS and e.claimedOn = :claimedOn")
+    int reschedule(@Param("id") Long id, @Param("claimedOn") LocalDateTime claimedOn, @Param("status") GradingOutboxEvent.Status status,
+                   @Param("attempts") int attempts, @Param("nextAttemptOn") LocalDateTime nextAttemptOn, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("delete from GradingOutboxEvent e where e.status = com.beckett.grading.entity.GradingOutboxEvent.Status.DONE and e.completedOn < :completedBefore")
+    int deleteDoneBefore(@Param("completedBefore") LocalDateTime completedBefore);
+}
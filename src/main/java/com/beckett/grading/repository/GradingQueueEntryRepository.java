@@ -0,0 +1,36 @@
+package com.beckett.grading.repository;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GradingQueueEntryRepository extends JpaRepository<GradingQueueEntry, Long>, JpaSpecificationExecutor<GradingQueueEntry> {
+
+    @Modifying
+    @Query("update GradingQueueEntry e set e.orderStatus = :orderStatus where e.orderId = :orderId")
+    int updateOrderStatus(@Param("orderId") Long orderId, @Param("orderStatus") String orderStatus);
+
+    /**
+     * The rows of the jobs, locked until the end of the transaction so a concurrent refresh of them waits for it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from GradingQueueEntry e where e.cardSubOrderJobId in :cardSubOrderJobIds")
+    List<GradingQueueEntry> lockAllById(@Param("cardSubOrderJobIds") Collection<Long> cardSubOrderJobIds);
+
+    List<GradingQueueEntry> findByQueueEligibleTrueAndRefreshedOnBefore(LocalDateTime refreshedBefore);
+
+    @Modifying
+    @Query("update GradingQueueEntry e set e.queueEligible = false where e.refreshedOn < :refreshedBefore")
+    int markNotEligibleRefreshedBefore(@Param("refreshedBefore") LocalDateTime refreshedBefore);
+}
@@ -0,0 +1,29 @@
+package com.beckett.grading.repository;
+
+import com.beckett.grading.entity.GradingQueueEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface GradingQueueEventRepository extends JpaRepository<GradingQueueEvent, Long> {
+
+    @Query("select e from GradingQueueEvent e where e.id > :afterId and e.id <= :upToId order by e.id")
+    List<GradingQueueEvent> findBetween(@Param("afterId") long afterId, @Param("upToId") long upToId, Pageable pageable);
+
+    @Query("select coalesce(max(e.id), 0) from GradingQueueEvent e")
+    long findMaxId();
+
+    @Query("select coalesce(min(e.id), 0) from GradingQueueEvent e")
+    long findMinId();
+
+    @Modifying
+    @Query("delete from GradingQueueEvent e where e.createdOn < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
@@ -0,0 +1,51 @@
+package com.beckett.grading.repository;
+
+import com.beckett.grading.entity.GradingRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface GradingRollupRepository extends JpaRepository<GradingRollup, GradingRollup.Key> {
+
+    /**
+     * Serializes the roll-ups of one counter until the end of the transaction.
+     */
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:lockKey))) AS locks", nativeQuery = true)
+    long lock(@Param("lockKey") String lockKey);
+
+    @Modifying
+    @Query(value = "INSERT INTO grading.grading_rollup (scope, scope_id, total, graded) VALUES (:scope, :scopeId, :total, 0)",
+            nativeQuery = true)
+    int create(@Param("scope") String scope, @Param("scopeId") Long scopeId, @Param("total") int total);
+
+    /**
+     * Records that a job / card sub order counted towards its parent, 0 when it already did.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO grading.grading_rollup_member (scope, member_id) VALUES (:scope, :memberId) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int addMember(@Param("scope") String scope, @Param("memberId") Long memberId);
+
+    @Modifying
+    @Query(value = "INSERT INTO grading.grading_rollup_member (scope, member_id) " +
+            "SELECT :scope, m FROM unnest(cast(:memberIds AS int8[])) AS m ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addMembers(@Param("scope") String scope, @Param("memberIds") Long[] memberIds);
+
+    @Modifying
+    @Query(value = "UPDATE grading.grading_rollup SET graded = graded + :count WHERE scope = :scope AND scope_id = :scopeId",
+            nativeQuery = true)
+    int increment(@Param("scope") String scope, @Param("scopeId") Long scopeId, @Param("count") int count);
+
+    /**
+     * Marks the counter complete once graded reached total, 1 only for the call that did so.
+     */
+    @Modifying
+    @Query(value = "UPDATE grading.grading_rollup SET completed_on = :completedOn " +
+            "WHERE scope = :scope AND scope_id = :scopeId AND graded >= total AND completed_on IS NULL", nativeQuery = true)
+    int complete(@Param("scope") String scope, @Param("scopeId") Long scopeId, @Param("completedOn") LocalDateTime completedOn);
+}
@@ -0,0 +1,42 @@
+package com.beckett.grading.repository;
+
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.user.entity.Users;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set based grader assignment, the jobs are read as id / job no / graded rows and assigned with one update per
+ * grader instead of being loaded and saved as entities.
+ */
+@Repository
+public interface JobAssignmentRepository extends JpaRepository<CardSuborderJob, Long> {
+
+    interface JobState {
+        Long getId();
+        String getJobNo();
+        Boolean getIsGraded();
+    }
+
+    @Query("select j.id as id, j.jobNo as jobNo, j.isGraded as isGraded from CardSuborderJob j where j.jobNo in :jobNos")
+    List<JobState> findStatesByJobNos(@Param("jobNos") Collection<String> jobNos);
+
+    /**
+     * Assigns the jobs that are not graded yet, returns how many were.
+     */
+    @Modifying
+    @Query("update CardSuborderJob j set j.grader = :grader, j.gradingStatus = :gradingStatus " +
+            "where j.id in :ids and (j.isGraded is null or j.isGraded = false)")
+    int assign(@Param("ids") Collection<Long> ids,
+               @Param("grader") Users grader,
+               @Param("gradingStatus") CardSuborderJob.StatusEnum gradingStatus);
+
+    @Query("select j.id from CardSuborderJob j where j.id in :ids and j.isGraded = true")
+    List<Long> findGradedIds(@Param("ids") Collection<Long> ids);
+}
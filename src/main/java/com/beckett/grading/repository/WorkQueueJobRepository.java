@@ -0,0 +1,25 @@
+package com.beckett.grading.repository;
+
+import com.beckett.order.entity.CardSuborderJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Work queue reads of card sub order jobs, the page query joins the sub order, order and grader so rendering a page
+ * doesn't load them row by row.
+ */
+@Repository
+public interface WorkQueueJobRepository extends JpaRepository<CardSuborderJob, Long>, JpaSpecificationExecutor<CardSuborderJob> {
+
+    // the attribute paths of the entity graph below, for the queries that can't carry the annotation
+    String[] QUEUE_ROW_GRAPH = {"cardSuborder", "cardSuborder.order", "grader"};
+
+    @Override
+    @EntityGraph(attributePaths = {"cardSuborder", "cardSuborder.order", "grader"})
+    Page<CardSuborderJob> findAll(Specification<CardSuborderJob> spec, Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package com.beckett.grading.repository.specification;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import io.micrometer.common.util.StringUtils;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Same filters as the card sub order job work queue specifications, on the flat {@link GradingQueueEntry}.
+ */
+public class GradingQueueEntrySpecification {
+
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private GradingQueueEntrySpecification() {}
+
+    public static Specification<GradingQueueEntry> isQueueEligible() {
+        return (root, query, cb) -> cb.isTrue(root.get("queueEligible"));
+    }
+
+    public static Specification<GradingQueueEntry> hasGrader(Long graderId, String email) {
+        if (graderId == null) return null;
+        return (root, query, cb) -> StringUtils.isBlank(email)
+                ? cb.equal(root.get("graderId"), graderId)
+                : cb.or(cb.equal(root.get("graderId"), graderId), cb.equal(cb.lower(root.get("gradedBy")), email.toLowerCase()));
+    }
+
+    public static Specification<GradingQueueEntry> hasDueDate(String dueDate) {
+        if (StringUtils.isBlank(dueDate)) return null;
+        LocalDate date = parseDueDate(dueDate);
+        return (root, query, cb) -> cb.equal(root.get("dueDate"), date);
+    }
+
+    public static Specification<GradingQueueEntry> hasServiceLevel(Long serviceLevelId) {
+        if (serviceLevelId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("serviceLevelId"), serviceLevelId);
+    }
+
+    public static Specification<GradingQueueEntry> hasLocation(Long locationId) {
+        if (locationId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("locationId"), locationId);
+    }
+
+    private static LocalDate parseDueDate(String dueDate) {
+        try {
+            return LocalDate.parse(dueDate, DUE_DATE_FORMAT);
+        } catch (DateTimeParseException e) {
+            return LocalDate.parse(dueDate.length() > 10 ? dueDate.substring(0, 10) : dueDate);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.beckett.grading.repository.specification;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.utils.WorkQueueCursor;
+import com.beckett.order.entity.CardSuborderJob;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Seek conditions for keyset paging of the work queues, rows strictly after the cursor in (due date, job id) order.
+ */
+public class WorkQueueKeysetSpecification {
+
+    public static final Sort JOB_ORDER = Sort.by(Sort.Order.asc("cardSuborder.dueDate"), Sort.Order.asc("id"));
+    public static final Sort ENTRY_ORDER = Sort.by(Sort.Order.asc("dueDate"), Sort.Order.asc("cardSubOrderJobId"));
+
+    private WorkQueueKeysetSpecification() {}
+
+    public static Specification<CardSuborderJob> jobsAfter(WorkQueueCursor cursor) {
+        if (cursor == null) return null;
+        return (root, query, cb) -> after(cb, root.get("cardSuborder").get("dueDate"), root.get("id"), cursor);
+    }
+
+    public static Specification<GradingQueueEntry> entriesAfter(WorkQueueCursor cursor) {
+        if (cursor == null) return null;
+        return (root, query, cb) -> after(cb, root.get("dueDate"), root.get("cardSubOrderJobId"), cursor);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Path dueDate, Path<Long> id, WorkQueueCursor cursor) {
+        Comparable value = (Comparable) cursor.dueDateAs(dueDate.getJavaType());
+        return cb.or(cb.greaterThan(dueDate, value),
+                cb.and(cb.equal(dueDate, value), cb.greaterThan(id, cursor.cardSuborderJobId())));
+    }
+}
@@ -0,0 +1,15 @@
+package com.beckett.grading.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalculateGradeRequest {
+    private String centering;
+    private String corners;
+    private String edges;
+    private String surface;
+}
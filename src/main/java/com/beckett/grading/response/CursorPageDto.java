@@ -0,0 +1,15 @@
+package com.beckett.grading.response;
+
+import com.beckett.common.dto.PageDto;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Page details for keyset paged work queues, {@code nextCursor} is passed back to fetch the following page and is
+ * null on the last one.
+ */
+@Getter
+@Setter
+public class CursorPageDto extends PageDto {
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.beckett.grading.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What happened to one job no of an assign graders request. A job no listed more than once in the same call is
+ * {@code DUPLICATE} everywhere it is listed and left unassigned, there is no telling which grader was meant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobAssignmentOutcome {
+
+    public enum Outcome { ASSIGNED, ALREADY_GRADED, NOT_FOUND, GRADER_UNAVAILABLE, DUPLICATE }
+
+    private String jobNo;
+    private Long graderId;
+    private Outcome outcome;
+}
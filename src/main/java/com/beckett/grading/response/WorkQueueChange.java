@@ -0,0 +1,27 @@
+package com.beckett.grading.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One work queue delta as streamed to the grading floor, the SSE event id is eventId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkQueueChange {
+    private Long eventId;
+    private String type;
+    private Long cardSubOrderJobId;
+    private String jobNo;
+    private Long graderId;
+    private Long previousGraderId;
+    private Long locationId;
+    private Long previousLocationId;
+    private Long serviceLevelId;
+    private String gradingStatus;
+    private LocalDateTime occurredOn;
+}
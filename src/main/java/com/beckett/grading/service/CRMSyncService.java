@@ -3,6 +3,10 @@ package com.beckett.grading.service;
 
 import com.beckett.shdsvc.enums.DealStageEnum;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface CRMSyncService {
     void updateDeal(String dealId, DealStageEnum dealStageEnum);
+
+    CompletableFuture<Void> updateDealAsync(String dealId, DealStageEnum dealStageEnum);
 }
@@ -2,7 +2,11 @@ package com.beckett.grading.service;
 
 import com.beckett.common.dto.EmailRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface EmailTriggerService {
 
     void sendEmail(EmailRequest emailRequest);
+
+    CompletableFuture<Void> sendEmailAsync(EmailRequest emailRequest);
 }
@@ -0,0 +1,16 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.dto.GraderProfile;
+import com.beckett.user.entity.Users;
+
+public interface GraderProfileService {
+    GraderProfile getProfile(Long userId);
+    GraderProfile getProfile(Users user);
+
+    /**
+     * Read uncached, for the write paths that must not accept a grader deactivated within the profile TTL.
+     */
+    boolean isActive(Long userId);
+    void evict(Long userId);
+    void evictAll();
+}
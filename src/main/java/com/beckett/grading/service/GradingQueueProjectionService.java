@@ -0,0 +1,15 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface GradingQueueProjectionService {
+    /**
+     * @return the refreshed rows, empty when the read model is disabled
+     */
+    List<GradingQueueEntry> refresh(Collection<Long> cardSuborderJobIds);
+    void updateOrderStatus(Long orderId, String orderStatus);
+    int rebuild();
+}
@@ -0,0 +1,10 @@
+package com.beckett.grading.service;
+
+import com.beckett.order.entity.CardSuborder;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.order.entity.Order;
+
+public interface GradingRollupService {
+    boolean jobGraded(CardSuborderJob cardSuborderJob);
+    boolean suborderGraded(Order order, CardSuborder cardSuborder);
+}
@@ -3,9 +3,11 @@ package com.beckett.grading.service;
 import com.beckett.common.entity.UserInfoDetails;
 import com.beckett.grading.dto.GradeResult;
 import com.beckett.grading.request.AssignGradersRequest;
+import com.beckett.grading.request.CalculateGradeRequest;
 import com.beckett.grading.request.ItemGrades;
 import com.beckett.grading.response.GradingIssueCategories;
 import com.beckett.grading.response.GradingWorkQueuesResponse;
+import com.beckett.grading.response.JobAssignmentOutcome;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
@@ -16,9 +18,10 @@ public interface GradingService {
                                      String corners,
                                      String edges,
                                      String surface);
-    GradingWorkQueuesResponse getMyGradingWorkQueues(Long loggedInUserId, String dueDate, Long serviceLevelId, Long locationId, Pageable pageable);
-    GradingWorkQueuesResponse getTotalGradingWorkQueues(Long userId, String dueDate, Long serviceLevelId, Long locationId, Pageable pageable);
+    List<GradeResult> calculateFinalGrades(List<CalculateGradeRequest> subGrades);
+    GradingWorkQueuesResponse getMyGradingWorkQueues(Long loggedInUserId, String dueDate, Long serviceLevelId, Long locationId, Pageable pageable, String cursor, boolean includeTotal);
+    GradingWorkQueuesResponse getTotalGradingWorkQueues(Long userId, String dueDate, Long serviceLevelId, Long locationId, Pageable pageable, String cursor, boolean includeTotal);
     Void submitGrades(UserInfoDetails grader, List<ItemGrades> itemGrades);
     Void finalizeGrades(UserInfoDetails grader, List<ItemGrades> itemGrades);
-    Void assignGraders(List<AssignGradersRequest> assignGradersRequests);
+    List<JobAssignmentOutcome> assignGraders(List<AssignGradersRequest> assignGradersRequests);
 }
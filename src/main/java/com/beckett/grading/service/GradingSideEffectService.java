@@ -0,0 +1,15 @@
+package com.beckett.grading.service;
+
+import com.beckett.shdsvc.enums.DealStageEnum;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface GradingSideEffectService {
+    void rollUpSubmitted(Long cardSuborderJobId);
+    void rollUpFinalized(Long cardSuborderJobId);
+    void writeCardLabels(List<Long> cardSuborderItemIds);
+    void updateDeal(String dealId, DealStageEnum dealStage);
+    void sendSuborderGradedEmail(String suborderNo, String invoiceNo, String customerEmail, String firstName);
+    CompletableFuture<Void> sendSuborderGradedEmailAsync(String suborderNo, String invoiceNo, String customerEmail, String firstName);
+}
@@ -0,0 +1,15 @@
+package com.beckett.grading.service;
+
+import com.beckett.shdsvc.entity.*;
+
+import java.util.Optional;
+
+public interface ReferenceDataService {
+    Optional<ServiceLevel> getServiceLevel(Integer serviceLevelId);
+    Optional<GradeMaster> getGradeMaster(Double gradeValue);
+    Optional<GradingServiceType> getGradingServiceType(Integer gradingServiceTypeId);
+    Optional<MasterCategory> getMasterCategory(String name);
+    Optional<DealStage> getDealStage(String dealStageName);
+    void preload();
+    void evictAll();
+}
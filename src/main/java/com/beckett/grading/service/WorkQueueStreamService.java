@@ -0,0 +1,30 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.entity.GradingQueueEvent;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+
+public interface WorkQueueStreamService {
+
+    /**
+     * Subscription filter, null fields match everything. A job moving away from the grader or location still matches
+     * through its previous grader / location.
+     */
+    record Filter(Long graderId, Long locationId, Long serviceLevelId) {
+        public boolean matches(GradingQueueEvent event) {
+            return (graderId == null || graderId.equals(event.getGraderId()) || graderId.equals(event.getPreviousGraderId()))
+                    && (locationId == null || locationId.equals(event.getLocationId()) || locationId.equals(event.getPreviousLocationId()))
+                    && (serviceLevelId == null || Objects.equals(serviceLevelId, event.getServiceLevelId()));
+        }
+    }
+
+    boolean isEnabled();
+    void record(Map<Long, GradingQueueEntry> previousById, Collection<GradingQueueEntry> entries, LocalDateTime recordedOn);
+    void recordRemoved(Collection<GradingQueueEntry> retired, LocalDateTime recordedOn);
+    SseEmitter subscribe(Filter filter, Long lastEventId);
+}
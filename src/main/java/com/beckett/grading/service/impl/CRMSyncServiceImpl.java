@@ -2,15 +2,18 @@ package com.beckett.grading.service.impl;
 
 import com.amazonaws.services.secretsmanager.model.InvalidRequestException;
 import com.beckett.common.util.Constants;
+import com.beckett.grading.config.ApplicationConfig;
+import com.beckett.grading.utils.DownstreamClient;
 import com.beckett.order.dto.request.DealInfo;
 import com.beckett.order.dto.response.CRMDealCreateResponseDTO;
 import com.beckett.shdsvc.entity.DealStage;
 import com.beckett.shdsvc.enums.DealStageEnum;
-import com.beckett.shdsvc.repository.DealStageRepository;
 import com.beckett.grading.service.CRMSyncService;
+import com.beckett.grading.service.ReferenceDataService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
@@ -19,6 +22,7 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
@@ -32,9 +36,10 @@ public class CRMSyncServiceImpl implements CRMSyncService {
     private String crmApiUrl;
 
     @Autowired
-    private RestClient restClient;
+    @Qualifier(ApplicationConfig.CRM_CLIENT)
+    private DownstreamClient crmClient;
 
-    private final DealStageRepository dealStageRepository;
+    private final ReferenceDataService referenceDataService;
     public static final String API_V1_CRM_CREATE_DEAL = "/api/v1/crm/deal/contact";
     public static final String AUTHORIZATION = "Authorization";
     public static final String BEARER = "Bearer ";
@@ -42,32 +47,49 @@ public class CRMSyncServiceImpl implements CRMSyncService {
     @Override
     public void updateDeal(String dealId, DealStageEnum dealStageEnum) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set(AUTHORIZATION, BEARER + apiKey);
-
             DealInfo dealInfo = formUpdateDealRequest(dealStageEnum);
-
-            // Build the URL with query parameters
-            String urlWithQueryParams = UriComponentsBuilder.fromHttpUrl(crmApiUrl +
-                            API_V1_CRM_CREATE_DEAL)
-                    .queryParam("dealId", dealId)
-                    .toUriString();
-
-            restClient.put().uri(urlWithQueryParams)
-                    .headers(httpheaders -> httpheaders.addAll(headers))
-                    .body(dealInfo)
-                    .retrieve()
-                    .toEntity(CRMDealCreateResponseDTO.class);
-
+            crmClient.call(restClient -> put(restClient, dealId, dealInfo));
             log.info("Deal is updated successfully.");
         } catch (Exception e) {
-            log.error("Deal update failed, the error message is: { }", e);
+            log.error("Deal update failed for deal {}", dealId, e);
+            throw new IllegalStateException("CRM deal update failed for deal " + dealId, e);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> updateDealAsync(String dealId, DealStageEnum dealStageEnum) {
+        DealInfo dealInfo = formUpdateDealRequest(dealStageEnum);
+        return crmClient.callAsync(restClient -> put(restClient, dealId, dealInfo))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Deal update failed for deal {}", dealId, e);
+                    } else {
+                        log.info("Deal is updated successfully.");
+                    }
+                })
+                .thenApply(result -> null);
+    }
+
+    private CRMDealCreateResponseDTO put(RestClient restClient, String dealId, DealInfo dealInfo) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(AUTHORIZATION, BEARER + apiKey);
+
+        // Build the URL with query parameters
+        String urlWithQueryParams = UriComponentsBuilder.fromHttpUrl(crmApiUrl +
+                        API_V1_CRM_CREATE_DEAL)
+                .queryParam("dealId", dealId)
+                .toUriString();
+
+        return restClient.put().uri(urlWithQueryParams)
+                .headers(httpheaders -> httpheaders.addAll(headers))
+                .body(dealInfo)
+                .retrieve()
+                .body(CRMDealCreateResponseDTO.class);
+    }
+
     private DealInfo formUpdateDealRequest(DealStageEnum dealStageEnum) {
-        Optional<DealStage> dealStage = dealStageRepository.findByDealStageName(dealStageEnum.getStageName());
+        Optional<DealStage> dealStage = referenceDataService.getDealStage(dealStageEnum.getStageName());
         if(dealStage.isEmpty()){
             throw new InvalidRequestException(Constants.DEAL_STAGE_NOT_FOUND);
         }
@@ -1,19 +1,22 @@
 package com.beckett.grading.service.impl;
 
 import com.beckett.common.dto.EmailRequest;
+import com.beckett.grading.config.ApplicationConfig;
 import com.beckett.grading.service.EmailTriggerService;
+import com.beckett.grading.utils.DownstreamClient;
 import com.fasterxml.jackson.databind.JsonNode;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class EmailTriggerServiceImpl implements EmailTriggerService {
 
@@ -23,30 +26,48 @@ public class EmailTriggerServiceImpl implements EmailTriggerService {
     @Value("${notification.api.url}")
     private String notificationApiUrl;
 
-    private final RestClient restClient;
+    @Autowired
+    @Qualifier(ApplicationConfig.NOTIFICATION_CLIENT)
+    private DownstreamClient notificationClient;
 
     public static final String API_V1_NOTIFICATION_SEND_EMAIL = "/api/v1/notification/send-email";
     public static final String AUTHORIZATION = "Authorization";
     public static final String BEARER = "Bearer ";
 
-    @Async
     @Override
     public void sendEmail(EmailRequest emailRequest) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set(AUTHORIZATION, BEARER + apiKey);
-
-            restClient.post()
-                    .uri(notificationApiUrl + API_V1_NOTIFICATION_SEND_EMAIL)
-                    .headers(httpheaders -> httpheaders.addAll(headers))
-                    .body(emailRequest)
-                    .retrieve()
-                    .toEntity(JsonNode.class);
-
+            notificationClient.call(restClient -> post(restClient, emailRequest));
             log.info("Email Triggered successfully");
         } catch (Exception e) {
-            log.error("Email Triggered failed { }", e);
+            log.error("Email Triggered failed", e);
+            throw new IllegalStateException("Email trigger failed for template " + emailRequest.getTemplateName(), e);
         }
     }
+
+    @Override
+    public CompletableFuture<Void> sendEmailAsync(EmailRequest emailRequest) {
+        return notificationClient.callAsync(restClient -> post(restClient, emailRequest))
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("Email Triggered failed", e);
+                    } else {
+                        log.info("Email Triggered successfully");
+                    }
+                })
+                .thenApply(result -> null);
+    }
+
+    private JsonNode post(RestClient restClient, EmailRequest emailRequest) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(AUTHORIZATION, BEARER + apiKey);
+
+        return restClient.post()
+                .uri(notificationApiUrl + API_V1_NOTIFICATION_SEND_EMAIL)
+                .headers(httpheaders -> httpheaders.addAll(headers))
+                .body(emailRequest)
+                .retrieve()
+                .body(JsonNode.class);
+    }
 }
@@ -0,0 +1,58 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.grading.config.CacheConfig;
+import com.beckett.grading.dto.GraderProfile;
+import com.beckett.grading.repository.GraderStatusRepository;
+import com.beckett.grading.service.GraderProfileService;
+import com.beckett.user.entity.Users;
+import com.beckett.user.repository.UsersRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Grader profiles cached by user id. Roles and the active flag are maintained by the user service, so changes show
+ * up after the TTL or once the entry is evicted through the admin API. The active flag the grade writes authorize on
+ * is read uncached through isActive.
+ */
+@Transactional(readOnly = true)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GraderProfileServiceImpl implements GraderProfileService {
+
+    private final UsersRepository usersRepository;
+    private final GraderStatusRepository graderStatusRepository;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GRADER_PROFILES, key = "#userId", unless = "#result == null")
+    public GraderProfile getProfile(Long userId) {
+        return usersRepository.findById(userId).map(GraderProfile::of).orElse(null);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GRADER_PROFILES, key = "#user.userId")
+    public GraderProfile getProfile(Users user) {
+        return GraderProfile.of(user);
+    }
+
+    @Override
+    public boolean isActive(Long userId) {
+        return userId != null && graderStatusRepository.isActive(userId);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GRADER_PROFILES, key = "#userId")
+    public void evict(Long userId) {
+        log.info("Grader profile evicted for user id: {}", userId);
+    }
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.GRADER_PROFILES, allEntries = true)
+    public void evictAll() {
+        log.info("All grader profiles evicted");
+    }
+}
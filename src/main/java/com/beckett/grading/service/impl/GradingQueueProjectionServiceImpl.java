@@ -0,0 +1,185 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.repository.GradingQueueEntryRepository;
+import com.beckett.grading.repository.WorkQueueJobRepository;
+import com.beckett.grading.service.GradingQueueProjectionService;
+import com.beckett.grading.service.ReferenceDataService;
+import com.beckett.grading.service.WorkQueueStreamService;
+import com.beckett.grading.utils.GradingQueueMapper;
+import com.beckett.location.entity.Location;
+import com.beckett.location.repository.JobLocationMappingRepository;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.order.repository.CardSuborderJobRepository;
+import com.beckett.order.repository.specification.CardSuborderJobSpecification;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the {@link GradingQueueEntry} read model in line with the card sub order jobs. Rows are refreshed by the
+ * grading write paths; changes made outside this service (e.g. location moves) are picked up through the admin
+ * refresh endpoint or the scheduled rebuild. Row changes are handed to the {@link WorkQueueStreamService} as queue
+ * deltas.
+ */
+@Transactional
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GradingQueueProjectionServiceImpl implements GradingQueueProjectionService {
+
+    private static final int REBUILD_PAGE_SIZE = 500;
+
+    private final CardSuborderJobRepository cardSuborderJobRepository;
+    private final JobLocationMappingRepository jobLocationMappingRepository;
+    private final ReferenceDataService referenceDataService;
+    private final GradingQueueEntryRepository gradingQueueEntryRepository;
+    private final WorkQueueJobRepository workQueueJobRepository;
+    private final GradingQueueMapper gradingQueueMapper;
+    private final WorkQueueStreamService workQueueStreamService;
+    private final PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${grading.queue.read-model.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public List<GradingQueueEntry> refresh(Collection<Long> cardSuborderJobIds) {
+        if(!enabled || cardSuborderJobIds == null || cardSuborderJobIds.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> ids = new HashSet<>(cardSuborderJobIds);
+        Set<Long> eligibleIds = cardSuborderJobRepository.findAll(hasId(ids).and(isQueueEligible()))
+                .stream().map(CardSuborderJob::getId).collect(Collectors.toSet());
+        Map<Long, GradingQueueEntry> previousById = workQueueStreamService.isEnabled()
+                ? byJobId(gradingQueueEntryRepository.findAllById(ids)) : Map.of();
+        return project(cardSuborderJobRepository.findAllById(ids), previousById, eligibleIds::contains, LocalDateTime.now());
+    }
+
+    @Override
+    public void updateOrderStatus(Long orderId, String orderStatus) {
+        if(enabled && orderId != null) {
+            gradingQueueEntryRepository.updateOrderStatus(orderId, orderStatus);
+        }
+    }
+
+    /**
+     * Walks the eligible jobs in id order, each page in its own short transaction. A page locks its read model rows
+     * and leaves out the jobs a write path refreshed since the page was read, their rows already hold newer state.
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int rebuild() {
+        if(!enabled) {
+            return 0;
+        }
+        TransactionTemplate pageTransaction = new TransactionTemplate(transactionManager);
+        pageTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime startedOn = LocalDateTime.now();
+        int count = 0;
+        int skipped = 0;
+        RebuildPage page = new RebuildPage(0, 0, 0L);
+        do {
+            long afterId = page.lastId();
+            page = pageTransaction.execute(status -> rebuildPage(afterId));
+            count += page.read();
+            skipped += page.read() - page.projected();
+        } while (page.read() == REBUILD_PAGE_SIZE);
+        // anything not touched by this run has left the queue
+        Integer removed = pageTransaction.execute(status -> {
+            if(workQueueStreamService.isEnabled()) {
+                workQueueStreamService.recordRemoved(gradingQueueEntryRepository.findByQueueEligibleTrueAndRefreshedOnBefore(startedOn), LocalDateTime.now());
+            }
+            return gradingQueueEntryRepository.markNotEligibleRefreshedBefore(startedOn);
+        });
+        log.info("Grading queue read model rebuilt with {} jobs, {} of them refreshed meanwhile, {} rows no longer eligible", count, skipped, removed);
+        return count;
+    }
+
+    @Scheduled(cron = "${grading.queue.read-model.rebuild-cron:-}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    private record RebuildPage(int read, int projected, long lastId) {}
+
+    private RebuildPage rebuildPage(long afterId) {
+        LocalDateTime readOn = LocalDateTime.now();
+        List<CardSuborderJob> jobs = workQueueJobRepository.findBy(isQueueEligible().and(hasIdAfter(afterId)),
+                query -> query.sortBy(Sort.by("id")).project(WorkQueueJobRepository.QUEUE_ROW_GRAPH).limit(REBUILD_PAGE_SIZE).all());
+        if(jobs.isEmpty()) {
+            return new RebuildPage(0, 0, afterId);
+        }
+        Map<Long, GradingQueueEntry> previousById = byJobId(gradingQueueEntryRepository.lockAllById(jobs.stream().map(CardSuborderJob::getId).toList()));
+        List<CardSuborderJob> current = jobs.stream()
+                .filter(job -> !isRefreshedAfter(previousById.get(job.getId()), readOn))
+                .toList();
+        project(current, previousById, id -> true, LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+        return new RebuildPage(jobs.size(), current.size(), jobs.getLast().getId());
+    }
+
+    private List<GradingQueueEntry> project(List<CardSuborderJob> jobs, Map<Long, GradingQueueEntry> previousById, LongPredicate isEligible, LocalDateTime refreshedOn) {
+        if(jobs.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Location> locationsByJobId = GradingQueueMapper.locationsByJobId(jobLocationMappingRepository
+                .findByCardSubOrderJobNoAndCurrentLocationTrue(jobs.stream().map(CardSuborderJob::getJobNo).toList()));
+        Map<Integer, ServiceLevel> serviceLevelsById = GradingQueueMapper.serviceLevelsById(jobs.stream()
+                .map(job -> job.getCardSuborder().getServiceLevelId().intValue()).distinct()
+                .map(referenceDataService::getServiceLevel).flatMap(Optional::stream).toList());
+        List<GradingQueueEntry> entries = new ArrayList<>(jobs.size());
+        for(CardSuborderJob job : jobs) {
+            GradingQueueEntry entry = gradingQueueMapper.toEntry(job, locationsByJobId, serviceLevelsById);
+            entry.setQueueEligible(isEligible.test(job.getId()));
+            entry.setRefreshedOn(refreshedOn);
+            entries.add(entry);
+        }
+        if(workQueueStreamService.isEnabled()) {
+            // diffed before saveAll, which merges the new state into these managed rows
+            workQueueStreamService.record(previousById, entries, refreshedOn);
+        }
+        return gradingQueueEntryRepository.saveAll(entries);
+    }
+
+    private static boolean isRefreshedAfter(GradingQueueEntry entry, LocalDateTime readOn) {
+        return entry != null && entry.getRefreshedOn() != null && entry.getRefreshedOn().isAfter(readOn);
+    }
+
+    private static Map<Long, GradingQueueEntry> byJobId(List<GradingQueueEntry> entries) {
+        return entries.stream().collect(Collectors.toMap(GradingQueueEntry::getCardSubOrderJobId, entry -> entry));
+    }
+
+    private static Specification<CardSuborderJob> isQueueEligible() {
+        return CardSuborderJobSpecification.hasSuborderPaymentDone().or(CardSuborderJobSpecification.hasSuborderStatusVerified());
+    }
+
+    private static Specification<CardSuborderJob> hasId(Set<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    private static Specification<CardSuborderJob> hasIdAfter(long afterId) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), afterId);
+    }
+}
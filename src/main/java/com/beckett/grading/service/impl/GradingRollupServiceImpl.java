@@ -0,0 +1,89 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.grading.entity.GradingRollup;
+import com.beckett.grading.repository.GradingRollupRepository;
+import com.beckett.grading.service.GradingRollupService;
+import com.beckett.order.constant.SuborderStatus;
+import com.beckett.order.entity.*;
+import com.beckett.order.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Graded / total counters of card sub orders and orders. A counter is seeded from the current state the first time
+ * one of its jobs (or card sub orders) is rolled up, after that every roll-up is one membership insert and one
+ * increment. Membership makes a retried roll-up count once, and the roll-ups of one counter are serialized with a
+ * transaction scoped advisory lock so seeding and counting cannot interleave. The completion is reported to the one
+ * caller whose increment meets the total.
+ */
+@Transactional(propagation = Propagation.MANDATORY)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GradingRollupServiceImpl implements GradingRollupService {
+
+    private final GradingRollupRepository gradingRollupRepository;
+    private final CardSuborderJobRepository cardSuborderJobRepository;
+    private final CardSuborderRepository cardSuborderRepository;
+
+    @Override
+    public boolean jobGraded(CardSuborderJob cardSuborderJob) {
+        Long cardSuborderId = cardSuborderJob.getCardSuborder().getCardSuborderId();
+        lock(GradingRollup.Scope.SUBORDER, cardSuborderId);
+        if (!exists(GradingRollup.Scope.SUBORDER, cardSuborderId)) {
+            List<CardSuborderJob> jobs = cardSuborderJobRepository.findAllByCardSuborderIdHavingItems(cardSuborderId);
+            seed(GradingRollup.Scope.SUBORDER, cardSuborderId, jobs.size(), jobs.stream()
+                    .filter(job -> Boolean.TRUE.equals(job.getIsGraded()))
+                    .map(CardSuborderJob::getId)
+                    .toArray(Long[]::new));
+        }
+        return count(GradingRollup.Scope.SUBORDER, cardSuborderId, cardSuborderJob.getId());
+    }
+
+    @Override
+    public boolean suborderGraded(Order order, CardSuborder cardSuborder) {
+        lock(GradingRollup.Scope.ORDER, order.getOrderId());
+        if (!exists(GradingRollup.Scope.ORDER, order.getOrderId())) {
+            List<CardSuborder> cardSuborders = order.getSuborders() == null ? List.of()
+                    : cardSuborderRepository.findAllById(order.getSuborders().stream().map(Suborder::getSuborderId).toList());
+            seed(GradingRollup.Scope.ORDER, order.getOrderId(), cardSuborders.size(), cardSuborders.stream()
+                    .filter(cso -> cso.getCardSuborderStatus() != null
+                            && Boolean.TRUE.equals(cso.getCardSuborderStatus().getIsGraded())
+                            && SuborderStatus.GRADED.equals(cso.getCardSuborderStatus().getSuborderStatus())
+                            && SuborderStatus.GRADED.equals(cso.getSuborderStatus()))
+                    .map(CardSuborder::getCardSuborderId)
+                    .toArray(Long[]::new));
+        }
+        return count(GradingRollup.Scope.ORDER, order.getOrderId(), cardSuborder.getCardSuborderId());
+    }
+
+    private void lock(GradingRollup.Scope scope, Long scopeId) {
+        gradingRollupRepository.lock(scope.name() + ":" + scopeId);
+    }
+
+    private boolean exists(GradingRollup.Scope scope, Long scopeId) {
+        return gradingRollupRepository.existsById(new GradingRollup.Key(scope, scopeId));
+    }
+
+    private void seed(GradingRollup.Scope scope, Long scopeId, int total, Long[] gradedMemberIds) {
+        gradingRollupRepository.create(scope.name(), scopeId, total);
+        if (gradedMemberIds.length > 0) {
+            gradingRollupRepository.increment(scope.name(), scopeId,
+                    gradingRollupRepository.addMembers(scope.name(), gradedMemberIds));
+        }
+        log.info("Seeded {} {} roll-up with {} of {} graded", scope, scopeId, gradedMemberIds.length, total);
+    }
+
+    private boolean count(GradingRollup.Scope scope, Long scopeId, Long memberId) {
+        if (gradingRollupRepository.addMember(scope.name(), memberId) == 1) {
+            gradingRollupRepository.increment(scope.name(), scopeId, 1);
+        }
+        return gradingRollupRepository.complete(scope.name(), scopeId, LocalDateTime.now()) == 1;
+    }
+}
@@ -2,64 +2,64 @@ package com.beckett.grading.service.impl;
 
 import com.beckett.certificate.entity.LookupBGS;
 import com.beckett.certificate.repository.LookupBGSRepository;
-import com.beckett.common.dto.EmailRequest;
 import com.beckett.common.dto.PageDto;
 import com.beckett.common.entity.UserInfoDetails;
-import com.beckett.customer.entity.Customer;
-import com.beckett.customer.repository.CustomerRepository;
-import com.beckett.grading.service.CRMSyncService;
-import com.beckett.grading.service.EmailTriggerService;
-import com.beckett.common.exception.FormulaNotFoundException;
-import com.beckett.common.exception.SubGradeSizeExceeded;
-import com.beckett.grading.consants.Formulas;
-import com.beckett.grading.dto.GradeFormulaDTO;
 import com.beckett.grading.dto.GradeResult;
-import com.beckett.grading.dto.RequestModel;
-import com.beckett.grading.entity.GradeRoundNumber;
-import com.beckett.grading.repository.GradeRoundNumberRepository;
-import com.beckett.grading.repository.TakeOffReferenceRepository;
+import com.beckett.grading.dto.GraderProfile;
+import com.beckett.grading.engine.*;
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.outbox.GradingOutbox;
+import com.beckett.grading.outbox.OutboxEventType;
+import com.beckett.grading.outbox.OutboxPayloads;
+import com.beckett.grading.repository.GradingItemRepository;
+import com.beckett.grading.repository.GradingQueueEntryRepository;
+import com.beckett.grading.repository.JobAssignmentRepository;
+import com.beckett.grading.repository.WorkQueueJobRepository;
+import com.beckett.grading.repository.specification.GradingQueueEntrySpecification;
+import com.beckett.grading.repository.specification.WorkQueueKeysetSpecification;
+import com.beckett.grading.service.GraderProfileService;
+import com.beckett.grading.service.GradingQueueProjectionService;
+import com.beckett.grading.service.ReferenceDataService;
 import com.beckett.grading.request.AssignGradersRequest;
+import com.beckett.grading.request.CalculateGradeRequest;
 import com.beckett.grading.request.ItemGrades;
 import com.beckett.grading.response.GradingIssueCategories;
+import com.beckett.grading.response.CursorPageDto;
 import com.beckett.grading.response.GradingQueue;
 import com.beckett.grading.response.GradingWorkQueuesResponse;
-import com.beckett.grading.entity.GradeFormula;
-import com.beckett.grading.repository.GradeFormulaRepository;
+import com.beckett.grading.response.JobAssignmentOutcome;
 import com.beckett.grading.utils.*;
-import com.beckett.grading.utils.AsyncUtils;
 import com.beckett.grading.utils.Constants;
 import com.beckett.order.CategoryOfIssues;
-import com.beckett.order.constant.OrderStatus;
 import com.beckett.order.constant.SuborderStatus;
 import com.beckett.order.entity.CardSuborderItemGrade;
 import com.beckett.order.repository.*;
 import com.beckett.grading.service.GradingService;
-import com.beckett.location.entity.JobLocationMapping;
 import com.beckett.location.entity.Location;
 import com.beckett.location.repository.JobLocationMappingRepository;
 import com.beckett.order.entity.*;
 import com.beckett.order.repository.specification.CardSuborderJobSpecification;
 import com.beckett.shdsvc.entity.*;
-import com.beckett.shdsvc.enums.DealStageEnum;
 import com.beckett.shdsvc.repository.*;
-import com.beckett.user.entity.UserBusinessUnit;
-import com.beckett.user.entity.UserBusinessUnitJobRole;
 import com.beckett.user.entity.Users;
 import com.beckett.user.repository.UsersRepository;
 import io.micrometer.common.util.StringUtils;
 import lombok.RequiredArgsConstructor;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.beckett.common.util.Constants.*;
 import static com.beckett.grading.utils.Constants.ITEM_NOT_FOUND;
@@ -70,135 +70,285 @@ import static com.beckett.grading.utils.Constants.ITEM_NOT_FOUND;
 @RequiredArgsConstructor
 public class GradingServiceImpl implements GradingService {
 
-    private final GradingServiceTypeRepository gradingServiceTypeRepository;
-    private final CardLabelWarehouseRepository cardLabelWarehouseRepository;
-    private final OrderRepository orderRepository;
-    private final CardSuborderRepository cardSuborderRepository;
     private final UsersRepository usersRepository;
     private final LookupBGSRepository lookupBGSRepository;
     private final CardSuborderJobRepository cardSuborderJobRepository;
-    private final MasterCategoryRepository masterCategoryRepository;
-    private final GradingRepository gradingRepository;
-    private final ServiceLevelRepository serviceLevelRepository;
     private final JobLocationMappingRepository jobLocationMappingRepository;
     private final CardSuborderItemRepository cardSuborderItemRepository;
     private final CardSuborderItemGradeRepository cardSuborderItemGradeRepository;
-    private final GradeFormulaRepository gradeFormulaRepository;
-    private final GradeRoundNumberRepository gradeRoundNumberRepository;
-    private final TakeOffReferenceRepository takeOffReferenceRepository;
-    private final GradeFormulaMapper gradeFormulaMapper;
-    private final GradingDescriptionMapper gradingDescriptionMapper;
-    private final CRMSyncService crmSyncService;
-    private final EmailTriggerService emailTriggerService;
-    private final CustomerRepository customerRepository;
-    private final SubGradeMapper subGradeMapper = new SubGradeMapper();
+    private final GradeLattice gradeLattice;
+    private final GradeCalculator gradeCalculator;
+    private final GradeReferenceIndex gradeReferenceIndex;
     private final SuborderRepository suborderRepository;
+    private final GradingQueueMapper gradingQueueMapper;
+    private final WorkQueueJobRepository workQueueJobRepository;
+    private final GradingQueueEntryRepository gradingQueueEntryRepository;
+    private final SpecificationPages specificationPages;
+    private final GradingQueueProjectionService gradingQueueProjectionService;
+    private final GraderProfileService graderProfileService;
+    private final ReferenceDataService referenceDataService;
+    private final GradingOutbox gradingOutbox;
+    private final BulkPersistence bulkPersistence;
+    private final GradingItemRepository gradingItemRepository;
+    private final QcRuleEngine qcRuleEngine;
+    private final JobAssignmentRepository jobAssignmentRepository;
+    private final GradingMetrics gradingMetrics;
+
+    // work queue sort properties as sent by the UI, mapped onto the read model columns
+    private static final Map<String, String> READ_MODEL_SORT_PROPERTIES = Map.of(
+            "id", "cardSubOrderJobId",
+            "jobNo", "jobNo",
+            "itemCount", "totalNoOfItems",
+            "dueDate", "dueDate",
+            "suborderNo", "subOrderNo",
+            "orderNo", "orderNo",
+            "gradingStatus", "gradingStatus",
+            "gradedBy", "gradedBy");
+
+    private static final int DEFAULT_WORK_QUEUE_PAGE_SIZE = 50;
+
+    @Value("${grading.queue.read-model.enabled:false}")
+    private boolean queueReadModelEnabled;
 
     @Override
     public GradingWorkQueuesResponse getMyGradingWorkQueues(Long loggedInUserId, String dueDate, Long serviceLevelId,
                                                             Long locationId,
-                                                            Pageable pageable) {
+                                                            Pageable pageable, String cursor, boolean includeTotal) {
+        return gradingMetrics.record("my-work-queues", metrics -> getMyGradingWorkQueues(loggedInUserId, dueDate,
+                serviceLevelId, locationId, pageable, cursor, includeTotal, metrics.serviceLevel(serviceLevelId).location(locationId)));
+    }
 
+    private GradingWorkQueuesResponse getMyGradingWorkQueues(Long loggedInUserId, String dueDate, Long serviceLevelId,
+                                                             Long locationId, Pageable pageable, String cursor,
+                                                             boolean includeTotal, GradingMetrics.Operation metrics) {
         Specification<CardSuborderJob> condition1 = CardSuborderJobSpecification.hasSuborderPaymentDone();
         Specification<CardSuborderJob> condition2 = CardSuborderJobSpecification.hasSuborderStatusVerified();
         Specification<CardSuborderJob> combinedSpecification = condition1.or(condition2);
 
-        Optional<Users> usersOptional = usersRepository.findById(loggedInUserId);
+        Optional<GraderProfile> usersOptional = Optional.ofNullable(graderProfileService.getProfile(loggedInUserId));
 
         if(usersOptional.isEmpty()) {
             log.warn("Logged User not found with id: {}", loggedInUserId);
             throw new IllegalArgumentException("Logged User not found with id: "+loggedInUserId);
         }
+        metrics.stage("grader-profile");
+
+        if(queueReadModelEnabled) {
+            return getGradingQueuesFromReadModel(
+                    Specification.where(GradingQueueEntrySpecification.hasGrader(loggedInUserId, usersOptional.get().email()))
+                        .and(GradingQueueEntrySpecification.hasDueDate(dueDate))
+                        .and(GradingQueueEntrySpecification.hasServiceLevel(serviceLevelId))
+                        .and(GradingQueueEntrySpecification.hasLocation(locationId)), pageable, cursor, includeTotal, metrics);
+        }
 
-        return getGradingQueues(cardSuborderJobRepository.findAll(
-                Specification.where(CardSuborderJobSpecification.hasGrader(loggedInUserId, usersOptional.get().getEmail()))
+        return getGradingQueues(
+                Specification.where(CardSuborderJobSpecification.hasGrader(loggedInUserId, usersOptional.get().email()))
                     .and(CardSuborderJobSpecification.hasDueDate(dueDate))
                     .and(CardSuborderJobSpecification.hasServiceLevel(serviceLevelId))
                     .and(CardSuborderJobSpecification.hasLocation(locationId))
-                    .and(combinedSpecification), pageable));
+                    .and(combinedSpecification), pageable, cursor, includeTotal, metrics);
     }
 
     @Override
     public GradingWorkQueuesResponse getTotalGradingWorkQueues(Long userId, String dueDate, Long serviceLevelId,
                                                                Long locationId,
-                                                               Pageable pageable) {
+                                                               Pageable pageable, String cursor, boolean includeTotal) {
+        return gradingMetrics.record("total-work-queues", metrics -> getTotalGradingWorkQueues(userId, dueDate,
+                serviceLevelId, locationId, pageable, cursor, includeTotal, metrics.serviceLevel(serviceLevelId).location(locationId)));
+    }
+
+    private GradingWorkQueuesResponse getTotalGradingWorkQueues(Long userId, String dueDate, Long serviceLevelId,
+                                                                Long locationId, Pageable pageable, String cursor,
+                                                                boolean includeTotal, GradingMetrics.Operation metrics) {
         Specification<CardSuborderJob> condition1 = CardSuborderJobSpecification.hasSuborderPaymentDone();
         Specification<CardSuborderJob> condition2 = CardSuborderJobSpecification.hasSuborderStatusVerified();
         Specification<CardSuborderJob> combinedSpecification = condition1.or(condition2);
 
-        Optional<Users> usersOptional = Optional.empty();
+        Optional<GraderProfile> usersOptional = Optional.empty();
         if(userId != null) {
-            usersOptional = usersRepository.findById(userId);
+            usersOptional = Optional.ofNullable(graderProfileService.getProfile(userId));
             if(usersOptional.isEmpty()) {
                 log.warn("Logged User not found with id: {}", userId);
                 throw new IllegalArgumentException("Logged User not found with id: "+userId);
             }
         }
+        metrics.stage("grader-profile");
+
+        if(queueReadModelEnabled) {
+            return getGradingQueuesFromReadModel(
+                    Specification.where(GradingQueueEntrySpecification.hasServiceLevel(serviceLevelId))
+                        .and(GradingQueueEntrySpecification.hasDueDate(dueDate))
+                        .and(GradingQueueEntrySpecification.hasLocation(locationId))
+                        .and(GradingQueueEntrySpecification.hasGrader(userId, usersOptional.map(GraderProfile::email).orElse(null))), pageable, cursor, includeTotal, metrics);
+        }
 
-        return getGradingQueues(cardSuborderJobRepository.findAll(
+        return getGradingQueues(
                 Specification.where(CardSuborderJobSpecification.hasServiceLevel(serviceLevelId))
                     .and(CardSuborderJobSpecification.hasDueDate(dueDate))
                     .and(CardSuborderJobSpecification.hasLocation(locationId))
-                    .and(CardSuborderJobSpecification.hasGrader(userId, usersOptional.map(Users::getEmail).orElse(null)))
-                    .and(combinedSpecification), pageable));
+                    .and(CardSuborderJobSpecification.hasGrader(userId, usersOptional.map(GraderProfile::email).orElse(null)))
+                    .and(combinedSpecification), pageable, cursor, includeTotal, metrics);
     }
 
-    private GradingWorkQueuesResponse getGradingQueues(Page<CardSuborderJob> gradingWorkQueuePage) {
+    /**
+     * Offset paging when no cursor is given, otherwise keyset paging on (due date, job id) which reads one row past
+     * the page instead of counting. In both modes the total is only counted when asked for.
+     */
+    private GradingWorkQueuesResponse getGradingQueues(Specification<CardSuborderJob> specification, Pageable pageable,
+                                                       String cursor, boolean includeTotal, GradingMetrics.Operation metrics) {
         GradingWorkQueuesResponse gradingWorkQueuesResponse = new GradingWorkQueuesResponse();
-        PageDto pageDto = new PageDto();
-        pageDto.setPageSize(gradingWorkQueuePage.getSize());
-        pageDto.setPageStart(gradingWorkQueuePage.getNumber());
-        pageDto.setTotalPages(gradingWorkQueuePage.getTotalPages());
-        pageDto.setTotalRecords(gradingWorkQueuePage.getTotalElements());
-        pageDto.setCurrentPageCount(gradingWorkQueuePage.getNumberOfElements());
-        gradingWorkQueuesResponse.setPage(pageDto);
-
-        if (!gradingWorkQueuePage.getContent().isEmpty()) {
-            List<String> jobs = gradingWorkQueuePage.getContent().stream().map(CardSuborderJob::getJobNo).toList();
-            List<JobLocationMapping> jobLocations = jobLocationMappingRepository.findByCardSubOrderJobNoAndCurrentLocationTrue(jobs);
-            List<ServiceLevel> serviceLevelList = serviceLevelRepository.findAllById(gradingWorkQueuePage.getContent().stream().map(CardSuborderJob::getCardSuborder).mapToInt(subOrder -> subOrder.getServiceLevelId().intValue()).boxed().toList());
-            gradingWorkQueuesResponse.setQueues(gradingWorkQueuePage
-                    .getContent()
-                    .stream()
-                    .map(
-                        cardSuborderJob -> {
-                            GradingQueue gradingQueue = new GradingQueue();
-                            CardSuborder cardSuborder = cardSuborderJob.getCardSuborder();
-                            Order order = cardSuborderJob.getCardSuborder().getOrder();
-                            gradingQueue.setOrderId(order.getOrderId());
-                            gradingQueue.setSubOrderId(cardSuborder.getSuborderId());
-                            gradingQueue.setCardSubOrderId(cardSuborder.getCardSuborderId());
-                            gradingQueue.setCardSubOrderJobId(cardSuborderJob.getId());
-                            gradingQueue.setOrderNo(order.getOrderNo());
-                            gradingQueue.setSubOrderNo(cardSuborder.getSuborderNo());
-                            gradingQueue.setJobNo(cardSuborderJob.getJobNo());
-                            gradingQueue.setTotalNoOfItems(cardSuborderJob.getItemCount());
-                            gradingQueue.setDueDate(cardSuborder.getDueDate().format(DateTimeFormatter.ofPattern("MM/dd/yyyy")));
-                            gradingQueue.setServiceLevel(populateServiceLevel(cardSuborder.getServiceLevelId().intValue(), serviceLevelList));
-                            gradingQueue.setUserRole(cardSuborderJob.getGrader() != null ? populateUserRole(cardSuborderJob.getGrader()) : null);
-                            gradingQueue.setAssignedTo(cardSuborderJob.getGrader() != null ? cardSuborderJob.getGrader().getUserId(): null);
-                            gradingQueue.setLocation(populateLocation(cardSuborderJob.getId(), jobLocations));
-                            gradingQueue.setGradingStatus(cardSuborderJob.getGradingStatus() != null ? cardSuborderJob.getGradingStatus().name() : CardSuborderJob.StatusEnum.READY_TO_GRADE.name());
-                            gradingQueue.setOrderStatus(order.getOrderStatus().value());
-                            return gradingQueue;
-                        }
-                    )
-                    .toList());
-        } else gradingWorkQueuesResponse.setQueues(new ArrayList<>());
+        if(cursor == null && !includeTotal) {
+            List<CardSuborderJob> content = specificationPages.content(CardSuborderJob.class, specification, pageable,
+                    WorkQueueJobRepository.QUEUE_ROW_GRAPH);
+            metrics.stage("query");
+            gradingWorkQueuesResponse.setPage(toPageDto(pageable, content.size()));
+            gradingWorkQueuesResponse.setQueues(toGradingQueues(content));
+            metrics.stage("map").items(content.size());
+            return gradingWorkQueuesResponse;
+        }
+        if(cursor == null) {
+            Page<CardSuborderJob> gradingWorkQueuePage = workQueueJobRepository.findAll(specification, pageable);
+            metrics.stage("query");
+            gradingWorkQueuesResponse.setPage(toPageDto(gradingWorkQueuePage));
+            gradingWorkQueuesResponse.setQueues(toGradingQueues(gradingWorkQueuePage.getContent()));
+            metrics.stage("map").items(gradingWorkQueuePage.getNumberOfElements());
+            return gradingWorkQueuesResponse;
+        }
+        int pageSize = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_WORK_QUEUE_PAGE_SIZE;
+        List<CardSuborderJob> jobs = workQueueJobRepository.findBy(
+                Specification.where(specification).and(WorkQueueKeysetSpecification.jobsAfter(WorkQueueCursor.decode(cursor))),
+                query -> query.sortBy(WorkQueueKeysetSpecification.JOB_ORDER).project(WorkQueueJobRepository.QUEUE_ROW_GRAPH)
+                        .limit(pageSize + 1).all());
+        List<CardSuborderJob> content = jobs.size() > pageSize ? jobs.subList(0, pageSize) : jobs;
+        String nextCursor = jobs.size() > pageSize
+                ? WorkQueueCursor.of(content.getLast().getCardSuborder().getDueDate(), content.getLast().getId()).encode()
+                : null;
+        metrics.stage("query");
+        gradingWorkQueuesResponse.setPage(toCursorPageDto(pageSize, content.size(), nextCursor,
+                includeTotal ? workQueueJobRepository.count(specification) : null));
+        metrics.stage("count");
+        gradingWorkQueuesResponse.setQueues(toGradingQueues(content));
+        metrics.stage("map").items(content.size());
         return gradingWorkQueuesResponse;
     }
 
+    private List<GradingQueue> toGradingQueues(List<CardSuborderJob> cardSuborderJobs) {
+        if (cardSuborderJobs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        // one query for the locations, service levels come from the reference data cache, then id lookups per row
+        List<String> jobs = cardSuborderJobs.stream().map(CardSuborderJob::getJobNo).toList();
+        Map<Long, Location> locationsByJobId = GradingQueueMapper.locationsByJobId(jobLocationMappingRepository.findByCardSubOrderJobNoAndCurrentLocationTrue(jobs));
+        Map<Integer, ServiceLevel> serviceLevelsById = GradingQueueMapper.serviceLevelsById(cardSuborderJobs.stream().map(CardSuborderJob::getCardSuborder).map(subOrder -> subOrder.getServiceLevelId().intValue()).distinct().map(referenceDataService::getServiceLevel).flatMap(Optional::stream).toList());
+        return cardSuborderJobs
+                .stream()
+                .map(cardSuborderJob -> gradingQueueMapper.toGradingQueue(cardSuborderJob, locationsByJobId, serviceLevelsById))
+                .toList();
+    }
+
+    private GradingWorkQueuesResponse getGradingQueuesFromReadModel(Specification<GradingQueueEntry> specification, Pageable pageable,
+                                                                    String cursor, boolean includeTotal, GradingMetrics.Operation metrics) {
+        Specification<GradingQueueEntry> eligible = Specification.where(GradingQueueEntrySpecification.isQueueEligible()).and(specification);
+        GradingWorkQueuesResponse gradingWorkQueuesResponse = new GradingWorkQueuesResponse();
+        if(cursor == null && !includeTotal) {
+            List<GradingQueueEntry> content = specificationPages.content(GradingQueueEntry.class, eligible, toReadModelPageable(pageable));
+            metrics.stage("query");
+            gradingWorkQueuesResponse.setPage(toPageDto(pageable, content.size()));
+            gradingWorkQueuesResponse.setQueues(new ArrayList<>(content.stream().map(gradingQueueMapper::toGradingQueue).toList()));
+            metrics.stage("map").items(content.size());
+            return gradingWorkQueuesResponse;
+        }
+        if(cursor == null) {
+            Page<GradingQueueEntry> gradingQueuePage = gradingQueueEntryRepository.findAll(eligible, toReadModelPageable(pageable));
+            metrics.stage("query");
+            gradingWorkQueuesResponse.setPage(toPageDto(gradingQueuePage));
+            gradingWorkQueuesResponse.setQueues(new ArrayList<>(gradingQueuePage.getContent().stream().map(gradingQueueMapper::toGradingQueue).toList()));
+            metrics.stage("map").items(gradingQueuePage.getNumberOfElements());
+            return gradingWorkQueuesResponse;
+        }
+        int pageSize = pageable.isPaged() ? pageable.getPageSize() : DEFAULT_WORK_QUEUE_PAGE_SIZE;
+        List<GradingQueueEntry> entries = gradingQueueEntryRepository.findBy(
+                eligible.and(WorkQueueKeysetSpecification.entriesAfter(WorkQueueCursor.decode(cursor))),
+                query -> query.sortBy(WorkQueueKeysetSpecification.ENTRY_ORDER).limit(pageSize + 1).all());
+        List<GradingQueueEntry> content = entries.size() > pageSize ? entries.subList(0, pageSize) : entries;
+        String nextCursor = entries.size() > pageSize
+                ? WorkQueueCursor.of(content.getLast().getDueDate(), content.getLast().getCardSubOrderJobId()).encode()
+                : null;
+        metrics.stage("query");
+        gradingWorkQueuesResponse.setPage(toCursorPageDto(pageSize, content.size(), nextCursor,
+                includeTotal ? gradingQueueEntryRepository.count(eligible) : null));
+        metrics.stage("count");
+        gradingWorkQueuesResponse.setQueues(new ArrayList<>(content.stream().map(gradingQueueMapper::toGradingQueue).toList()));
+        metrics.stage("map").items(content.size());
+        return gradingWorkQueuesResponse;
+    }
+
+    private static Pageable toReadModelPageable(Pageable pageable) {
+        if(pageable.isUnpaged() || pageable.getSort().isUnsorted()) {
+            return pageable;
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for(Sort.Order order : pageable.getSort()) {
+            String property = order.getProperty().substring(order.getProperty().lastIndexOf('.') + 1);
+            String mapped = READ_MODEL_SORT_PROPERTIES.get(property);
+            if(mapped != null) {
+                orders.add(order.withProperty(mapped));
+            } else log.warn("Sort property {} is not available on the grading queue read model, ignoring it", order.getProperty());
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), Sort.by(orders));
+    }
+
+    private static PageDto toPageDto(Page<?> page) {
+        PageDto pageDto = new PageDto();
+        pageDto.setPageSize(page.getSize());
+        pageDto.setPageStart(page.getNumber());
+        pageDto.setTotalPages(page.getTotalPages());
+        pageDto.setTotalRecords(page.getTotalElements());
+        pageDto.setCurrentPageCount(page.getNumberOfElements());
+        return pageDto;
+    }
+
+    /**
+     * Page details of an offset page read without counting, the totals are left unset.
+     */
+    private static PageDto toPageDto(Pageable pageable, int currentPageCount) {
+        PageDto pageDto = new PageDto();
+        pageDto.setPageSize(pageable.isPaged() ? pageable.getPageSize() : currentPageCount);
+        pageDto.setPageStart(pageable.isPaged() ? pageable.getPageNumber() : 0);
+        pageDto.setCurrentPageCount(currentPageCount);
+        return pageDto;
+    }
+
+    private static CursorPageDto toCursorPageDto(int pageSize, int currentPageCount, String nextCursor, Long totalRecords) {
+        CursorPageDto pageDto = new CursorPageDto();
+        pageDto.setPageSize(pageSize);
+        pageDto.setCurrentPageCount(currentPageCount);
+        pageDto.setNextCursor(nextCursor);
+        if(totalRecords != null) {
+            pageDto.setTotalRecords(totalRecords);
+            pageDto.setTotalPages((int) ((totalRecords + pageSize - 1) / pageSize));
+        }
+        return pageDto;
+    }
+
     @Override
-    public Void submitGrades(UserInfoDetails grader, List<ItemGrades> itemGrades) { //NOSONAR
+    public Void submitGrades(UserInfoDetails grader, List<ItemGrades> itemGrades) {
+        return gradingMetrics.record("submit", metrics -> submitGrades(grader, itemGrades, metrics.items(itemGrades.size())));
+    }
+
+    private Void submitGrades(UserInfoDetails grader, List<ItemGrades> itemGrades, GradingMetrics.Operation metrics) { //NOSONAR
+        requireActive(grader.getUserId());
+        metrics.stage("validate-grader");
         List<CardSuborderItemGrade> gradeList = new ArrayList<>();
-        List<CardSuborderItem> items =  cardSuborderItemRepository.findAllById(itemGrades.stream().map(ItemGrades::getCardSuborderItemId).toList());
+        List<CardSuborderItem> items = gradingItemRepository.findAllForGrading(itemGrades.stream().map(ItemGrades::getCardSuborderItemId).toList());
+        Map<Long, CardSuborderItem> itemsById = byItemId(items);
+        metrics.stage("load-items");
         Optional<ServiceLevel> serviceLevel = Optional.empty();
         Boolean withoutSubs = null;
         CardSuborderJob cardSuborderJob = null;
         for(ItemGrades grade : itemGrades) { //NOSONAR
-            Optional<CardSuborderItem> cardSuborderItemOptional = items.stream().filter(item -> Objects.equals(grade.getCardSuborderItemId(), item.getCardSuborderItemId())).findFirst();
-            if(cardSuborderItemOptional.isPresent()) {
-                CardSuborderItem item = cardSuborderItemOptional.get();
+            CardSuborderItem item = itemsById.get(grade.getCardSuborderItemId());
+            if(item != null) {
 
                 boolean isAlreadyGraded = item.getCardSuborderItemGrade() != null &&
                         (item.getCardSuborderItemGrade().getJrCenteringVal() != null
@@ -247,7 +397,7 @@ public class GradingServiceImpl implements GradingService {
                 }
 
                 if(serviceLevel.isEmpty()) {
-                    serviceLevel = serviceLevelRepository.findById(cardSuborder.getServiceLevelId().intValue());
+                    serviceLevel = referenceDataService.getServiceLevel(cardSuborder.getServiceLevelId().intValue());
                     withoutSubs = serviceLevel.isPresent() && Boolean.FALSE.equals(serviceLevel.get().getSubGrade());
                 }
 
@@ -293,62 +443,51 @@ public class GradingServiceImpl implements GradingService {
             } else log.warn(ITEM_NOT_FOUND, grade.getCardSuborderItemId());
         }
         Objects.requireNonNull(cardSuborderJob, "Card sub order job must not be null, this should not happen.");
+        tagJob(metrics, serviceLevel).stage("apply-grades");
         cardSuborderJob.setGradingStatus(CardSuborderJob.StatusEnum.READY_FOR_SENIOR_REVIEW);
         // MARKING ASSIGN OF THE JOB TO NULL SINCE THIS JOB NOW REQUIRES US TO REASSIGN IT TO THE NEXT LEVEL OF GRADING
         cardSuborderJob.setGrader(null);
         cardSuborderJob.setGradedBy(grader.getUsername());
         cardSuborderJob.setGradedOn(LocalDateTime.now());
-        cardSuborderJobRepository.save(cardSuborderJob);
-        cardSuborderItemGradeRepository.saveAll(gradeList);
-        // need to send a communication email here for Level 1 grading done
-        CardSuborderJob finalCardSuborderJob = cardSuborderJob;
-        AsyncUtils.perform(() -> {
-            // updating sub order and order level status to Grading
-            if(finalCardSuborderJob.getCardSuborder() != null
-                    && finalCardSuborderJob.getCardSuborder().getOrder() != null
-                    && finalCardSuborderJob.getCardSuborder().getOrder().getSuborders() != null
-                    && !finalCardSuborderJob.getCardSuborder().getOrder().getSuborders().isEmpty()) {
-                CardSuborder cardSuborder = finalCardSuborderJob.getCardSuborder();
-                cardSuborder.setSuborderStatus(SuborderStatus.GRADING);
-                CardSuborderStatus cardSuborderStatus = cardSuborder.getCardSuborderStatus();
-                if(cardSuborderStatus != null) cardSuborderStatus.setSuborderStatus(SuborderStatus.GRADING);
-                cardSuborderRepository.save(cardSuborder);
-
-                //HUBSPOT UPDATE
-                crmSyncService.updateDeal(cardSuborder.getCrmDealId(), DealStageEnum.L1_GRADED);
-
-                Order order = finalCardSuborderJob.getCardSuborder().getOrder();
-                order.setOrderStatus(OrderStatus.GRADING);
-                orderRepository.save(order);
-                log.info("SubmitGrades::Order & Sub Order status moved to Grading ");
-            } else {
-                log.warn("SubmitGrades::CardSubOrder not found from Card Sub Order Job");
-            }
-        }, () -> {
-            // E-mail Impl here
+        CardSuborderJob submittedJob = cardSuborderJob;
+        bulkPersistence.write(() -> {
+            cardSuborderJobRepository.save(submittedJob);
+            cardSuborderItemGradeRepository.saveAll(gradeList);
         });
+        metrics.stage("save");
+        tagLocation(metrics, gradingQueueProjectionService.refresh(List.of(cardSuborderJob.getId()))).stage("projection");
+        // need to send a communication email here for Level 1 grading done
+        Long cardSuborderJobId = cardSuborderJob.getId();
+        gradingOutbox.enqueue(OutboxEventType.SUBMIT_ROLLUP, new OutboxPayloads.Job(cardSuborderJobId));
+        metrics.stage("enqueue");
         return null;
     }
 
     @Override
-    public Void finalizeGrades(UserInfoDetails grader, List<ItemGrades> itemGrades) { //NOSONAR
+    public Void finalizeGrades(UserInfoDetails grader, List<ItemGrades> itemGrades) {
+        return gradingMetrics.record("finalize", metrics -> finalizeGrades(grader, itemGrades, metrics.items(itemGrades.size())));
+    }
+
+    private Void finalizeGrades(UserInfoDetails grader, List<ItemGrades> itemGrades, GradingMetrics.Operation metrics) { //NOSONAR
         boolean isJuniorGrader = isGraderIsAtJuniorLevel(grader.getUserId());
         if(isJuniorGrader) {
             throw new IllegalArgumentException("Second level grading information can't be from a junior grader.");
         }
+        metrics.stage("validate-grader");
         List<LookupBGS> lookupBGSList = new ArrayList<>();
         List<CardSuborderItemGrade> gradeList = new ArrayList<>();
         List<Long> itemsIds = itemGrades.stream().map(ItemGrades::getCardSuborderItemId).toList();
-        List<CardSuborderItem> items =  cardSuborderItemRepository.findAllById(itemsIds);
+        List<CardSuborderItem> items = gradingItemRepository.findAllForGrading(itemsIds);
+        Map<Long, CardSuborderItem> itemsById = byItemId(items);
+        metrics.stage("load-items");
         Optional<ServiceLevel> serviceLevel = Optional.empty();
         Boolean withoutSubs = null;
         CardSuborderJob cardSuborderJob = null;
         CardSuborder cardSuborder = null;
         for(ItemGrades grade : itemGrades) { //NOSONAR
-            Optional<CardSuborderItem> cardSuborderItemOptional = items.stream().filter(item -> Objects.equals(grade.getCardSuborderItemId(), item.getCardSuborderItemId())).findFirst();
-            if(cardSuborderItemOptional.isPresent()) {
+            CardSuborderItem item = itemsById.get(grade.getCardSuborderItemId());
+            if(item != null) {
 
-                CardSuborderItem item = cardSuborderItemOptional.get();
                 cardSuborderJob = Objects.isNull(cardSuborderJob) ? item.getCardSuborderJob() : cardSuborderJob;
                 cardSuborder = Objects.isNull(cardSuborder) ? cardSuborderJob.getCardSuborder() : cardSuborder;
 
@@ -411,7 +550,7 @@ public class GradingServiceImpl implements GradingService {
                 }
 
                 if(serviceLevel.isEmpty()) {
-                    serviceLevel = serviceLevelRepository.findById(cardSuborder.getServiceLevelId().intValue());
+                    serviceLevel = referenceDataService.getServiceLevel(cardSuborder.getServiceLevelId().intValue());
                     withoutSubs = serviceLevel.isPresent() && Boolean.FALSE.equals(serviceLevel.get().getSubGrade());
                 }
 
@@ -459,7 +598,7 @@ public class GradingServiceImpl implements GradingService {
                 cardSuborderItemGrade.setSrGraderComment(grade.getComments());
                 cardSuborderItemGrade.setIsGraded(Boolean.TRUE);
                 // setting up the grade type from grademaster table
-                Optional<GradeMaster> gradeMaster = gradingRepository.findByGradeValue(cardSuborderItemGrade.getSrFinalGradeVal());
+                Optional<GradeMaster> gradeMaster = metrics.time("grade-master", () -> referenceDataService.getGradeMaster(cardSuborderItemGrade.getSrFinalGradeVal()));
                 gradeMaster.ifPresent(master -> cardSuborderItemGrade.setGradeType(master.getGradeName()));
                 LookupBGS lookupBGS = addLookup(item, cardSuborderItemGrade);
                 lookupBGSList.add(lookupBGS);
@@ -468,26 +607,26 @@ public class GradingServiceImpl implements GradingService {
             } else log.warn(ITEM_NOT_FOUND, grade.getCardSuborderItemId());
         }
         Objects.requireNonNull(cardSuborderJob, "Card sub order job must not be null, this should not happen.");
+        tagJob(metrics, serviceLevel).stage("apply-grades");
         cardSuborderJob.setGradingStatus(CardSuborderJob.StatusEnum.GRADED);
         cardSuborderJob.setGradedOn(LocalDateTime.now());
         cardSuborderJob.setIsGraded(Boolean.TRUE);
         cardSuborderJob.setGradedBy(grader.getUsername());
-        cardSuborderJobRepository.save(cardSuborderJob);
-        cardSuborderItemGradeRepository.saveAll(gradeList);
-        cardSuborderItemRepository.saveAll(items);
-        lookupBGSRepository.saveAll(lookupBGSList);
-     // start QC condition apply and make is_qc_applicable true
-        Set<String> validServiceLevels = Set.of("Express", "Priority");
-        for(CardSuborderItem cardItem : items) {
-        	Suborder suborder = suborderRepository.findById(cardSuborder.getCardSuborderId()).orElseThrow();
-            boolean isQcApplicable =
-                    (cardItem.getDeclaredAmt() != null && cardItem.getDeclaredAmt().longValue() >= 5000) ||
-                            (cardItem.getCurrentGrade() != null && cardItem.getCurrentGrade().longValue() == 10) ||
-                            (cardItem.getCardSuborderItemGrade() != null && cardItem.getCardSuborderItemGrade().getSrFinalGradeVal() != null && cardItem.getCardSuborderItemGrade().getSrFinalGradeVal().longValue() == 10) ||
-                            validServiceLevels.contains(serviceLevel.orElseThrow().getName()) ||
-                            !suborder.getShipMethodId().getCountry().getCountryName().equalsIgnoreCase("United States of America");
-
-            if (isQcApplicable) {
+        CardSuborderJob finalizedJob = cardSuborderJob;
+        bulkPersistence.write(() -> {
+            cardSuborderJobRepository.save(finalizedJob);
+            cardSuborderItemGradeRepository.saveAll(gradeList);
+            cardSuborderItemRepository.saveAll(items);
+            lookupBGSRepository.saveAll(lookupBGSList);
+        });
+        metrics.stage("save");
+        // start QC condition apply and make is_qc_applicable true
+        if(!items.isEmpty()) {
+            Suborder suborder = suborderRepository.findById(cardSuborder.getCardSuborderId()).orElseThrow();
+            Optional<QcRuleEngine.QcRule> qcRule = qcRuleEngine.firstMatch(
+                    new QcRuleEngine.JobFacts(cardSuborderJob, cardSuborder, suborder, serviceLevel.orElse(null)), items);
+            if (qcRule.isPresent()) {
+                log.info("Job {} needs QC, rule {} applies", cardSuborderJob.getJobNo(), qcRule.get().name());
                 cardSuborderJob.setIsQcApplicable(Boolean.TRUE);
                 cardSuborderJob.setQcApplicableOn(LocalDateTime.now());
                 cardSuborderJob.setQcApplicableBy(grader.getUsername());
@@ -495,88 +634,39 @@ public class GradingServiceImpl implements GradingService {
             }
         }
         //End QC condition
+        metrics.stage("qc");
+        tagLocation(metrics, gradingQueueProjectionService.refresh(List.of(cardSuborderJob.getId()))).stage("projection");
         // need to send a communication email here for Level 2 grading done
-        CardSuborderJob finalCardSuborderJob = cardSuborderJob;
-        AsyncUtils.perform(
-                () -> {
-                    // check if all the jobs are graded then update the sub order and order status to graded.
-                    List<CardSuborderJob> jobs = cardSuborderJobRepository.findAllByCardSuborderIdHavingItems(finalCardSuborderJob.getCardSuborder().getCardSuborderId());
-                    if(jobs != null && !jobs.isEmpty()) {
-                        boolean isAllJobsGraded = jobs.stream().filter(job -> !job.getJobNo().equalsIgnoreCase(finalCardSuborderJob.getJobNo())
-                        && job.getCardSuborder().getOrder() != null).allMatch(CardSuborderJob::getIsGraded);
-                        if(isAllJobsGraded) {
-                            // marking the sub order to Graded since all the jobs are graded now.
-                            CardSuborder suborder = finalCardSuborderJob.getCardSuborder();
-                            suborder.setSuborderStatus(SuborderStatus.GRADED);
-                            suborder.getCardSuborderStatus().setSuborderStatus(SuborderStatus.GRADED);
-                            suborder.getCardSuborderStatus().setIsGraded(Boolean.TRUE);
-                            suborder.getCardSuborderStatus().setGradedOn(LocalDateTime.now());
-                            cardSuborderRepository.save(suborder);
-
-                            //HUBSPOT UPDATE
-                            crmSyncService.updateDeal(suborder.getCrmDealId(), DealStageEnum.GRADED);
-                            Optional<Customer> customer = customerRepository.findByEmail(suborder.getOrder().getCustomerEmail());
-                            //Send Email post verification
-                            customer.ifPresent(value -> triggerSubOrderGradedEmailToCustomer(
-                                    suborder.getSuborderNo(),
-                                    INVOICE_NO_PREFIX + suborder.getSuborderNo(),
-                                    value.getEmail(),
-                                    value.getFirstName()));
-
-                            // going into order level now.
-                            Optional<String> orderNo = jobs.stream().map(CardSuborderJob::getCardSuborder).map(CardSuborder::getOrder).map(Order::getOrderNo).findFirst();
-                            if(orderNo.isPresent()) {
-                                Optional<Order> orderOptional = orderRepository.findByOrderNo(orderNo.get());
-                                if(orderOptional.isPresent() && orderOptional.get().getSuborders() != null && !orderOptional.get().getSuborders().isEmpty()) {
-                                    List<CardSuborder> cardSuborderList = cardSuborderRepository.findAllById(orderOptional.get().getSuborders().stream().map(Suborder::getSuborderId).toList());
-                                    if(!cardSuborderList.isEmpty()) {
-                                        boolean isAllCardSubOrdersAreGraded = cardSuborderList.stream().allMatch(cso -> cso.getCardSuborderStatus() != null
-                                                && !Objects.equals(cso.getCardSuborderId(), finalCardSuborderJob.getCardSuborder().getCardSuborderId())
-                                                && cso.getCardSuborderStatus().getIsGraded()
-                                                && cso.getCardSuborderStatus().getSuborderStatus().equals(SuborderStatus.GRADED)
-                                                && cso.getSuborderStatus().equals(SuborderStatus.GRADED));
-                                        if(isAllCardSubOrdersAreGraded) {
-                                            // marking order to graded since all the card sub orders are graded now
-                                            Order order = orderOptional.get();
-                                            order.setOrderStatus(OrderStatus.GRADED);
-                                            orderRepository.save(order);
-                                        }
-                                    }
-                                }
-                            }
-                        } else {
-                            log.warn("All the jobs are not graded yet hence skipping the root level updates.");
-                        }
-                    }
-                },
-                () -> {
-                    // card label impl for all items in this job or bucket
-                    if(!items.isEmpty()) {
-                        log.info("Updating card label warehouse table with required line details");
-                        items.stream().filter(item -> StringUtils.isNotBlank(item.getItemMasterId())).forEach(item -> {
-                            // checking whether we have the data in this card label warehouse table for give item master id
-                            log.info("current item master id: {}", item.getItemMasterId());
-                            CardLabelWarehouse cardLabelWarehouse;
-                            Optional<CardLabelWarehouse> cardLabelWarehouseOptional =
-                                    cardLabelWarehouseRepository.findByItemMasterId(item.getItemMasterId());
-                            cardLabelWarehouse = cardLabelWarehouseOptional.orElseGet(CardLabelWarehouse::new);
-                            // generating lines
-                            Map<String, String> linesMap = GradeUtils.prepareLines(item);
-                            log.info("Lines: {} that are generated for item master id: {}", linesMap, item.getItemMasterId());
-                            if(!linesMap.isEmpty()) {
-                                cardLabelWarehouse.setBgsLine1(linesMap.get("line1"));
-                                cardLabelWarehouse.setBgsLine2(linesMap.get("line2"));
-                                cardLabelWarehouse.setBgsLine3(linesMap.get("line3"));
-                                cardLabelWarehouse.setBgsLine4(linesMap.get("line4"));
-                                cardLabelWarehouse.setItemMasterId(item.getItemMasterId());
-                                cardLabelWarehouseRepository.save(cardLabelWarehouse);
-                            }
-                        });
-                    }
-                });
+        Long cardSuborderJobId = cardSuborderJob.getId();
+        gradingOutbox.enqueue(OutboxEventType.FINALIZE_ROLLUP, new OutboxPayloads.Job(cardSuborderJobId));
+        gradingOutbox.enqueue(OutboxEventType.CARD_LABELS, new OutboxPayloads.Items(itemsIds));
+        metrics.stage("enqueue");
         return null;
     }
 
+    private GradingMetrics.Operation tagJob(GradingMetrics.Operation metrics, Optional<ServiceLevel> serviceLevel) {
+        return metrics.serviceLevel(() -> serviceLevel.map(ServiceLevel::getName).orElse(GradingMetrics.UNKNOWN));
+    }
+
+    /**
+     * Location of the job as projected into its work queue row, which the refresh looks up anyway. Unknown when the
+     * read model is disabled, the write paths don't load the job location themselves.
+     */
+    private static GradingMetrics.Operation tagLocation(GradingMetrics.Operation metrics, List<GradingQueueEntry> queueRows) {
+        return metrics.location(queueRows.stream()
+                .map(GradingQueueEntry::getLocationId)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .<Object>map(String::valueOf)
+                .orElse(GradingMetrics.UNKNOWN));
+    }
+
+    private static Map<Long, CardSuborderItem> byItemId(List<CardSuborderItem> items) {
+        Map<Long, CardSuborderItem> itemsById = HashMap.newHashMap(items.size());
+        items.forEach(item -> itemsById.put(item.getCardSuborderItemId(), item));
+        return itemsById;
+    }
+
     private LookupBGS addLookup(CardSuborderItem item, CardSuborderItemGrade cardSuborderItemGrade) { // NOSONAR
 
         // creating a new record if in case master id is not present
@@ -586,7 +676,7 @@ public class GradingServiceImpl implements GradingService {
         }
 
         // defaulting the value to 1
-        Optional<GradingServiceType> gradingServiceTypeOptional = gradingServiceTypeRepository.findById(1);
+        Optional<GradingServiceType> gradingServiceTypeOptional = referenceDataService.getGradingServiceType(Constants.DEFAULT_GRADING_SERVICE_TYPE_ID);
         gradingServiceTypeOptional.ifPresent(lookupBGS::setServiceTypeId);
         if(cardSuborderItemGrade.getSrCenteringVal() != null && cardSuborderItemGrade.getSrCenteringVal() > 0) {
             lookupBGS.setCenterGrade(BigDecimal.valueOf(cardSuborderItemGrade.getSrCenteringVal()));
@@ -625,30 +715,73 @@ public class GradingServiceImpl implements GradingService {
         lookupBGS.setNotes(cardSuborderItemGrade.getSrGraderComment());
         // need to fill up item attribute ids
         if(StringUtils.isNotBlank(item.getItemCategory())) {
-            Optional<MasterCategory> category = masterCategoryRepository.findByNameIgnoreCase(item.getItemCategory());
+            Optional<MasterCategory> category = referenceDataService.getMasterCategory(item.getItemCategory());
             category.ifPresent(lookupBGS::setMasterCategory);
         }
         return lookupBGS;
     }
 
     @Override
-    public Void assignGraders(List<AssignGradersRequest> assignGradersRequests) {
-        assignGradersRequests.forEach(assignGradersRequest -> {
-            Optional<Users> user = usersRepository.findById(assignGradersRequest.getGraderId());
-            if(user.isEmpty() || Boolean.FALSE.equals(user.get().getActive()) || Boolean.TRUE.equals(user.get().getDeleted())) {
-                throw new IllegalArgumentException("Selected Assignee either doesn't exists or it is deactivated, kindly requested to change the selection and try again.");
+    public List<JobAssignmentOutcome> assignGraders(List<AssignGradersRequest> assignGradersRequests) { // NOSONAR
+        // one query for the graders and one for the jobs of all the requests.
+        Map<Long, Users> graders = new HashMap<>();
+        usersRepository.findAllById(assignGradersRequests.stream().map(AssignGradersRequest::getGraderId).filter(Objects::nonNull).distinct().toList())
+                .stream()
+                .filter(user -> !Boolean.FALSE.equals(user.getActive()) && !Boolean.TRUE.equals(user.getDeleted()))
+                .forEach(user -> graders.put(user.getUserId(), user));
+        // a job no listed twice, under one grader or two, is not assigned at all
+        Map<String, Long> requestsByJobNo = assignGradersRequests.stream()
+                .filter(assignGradersRequest -> assignGradersRequest.getJobNos() != null)
+                .flatMap(assignGradersRequest -> assignGradersRequest.getJobNos().stream())
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), HashMap::new, Collectors.counting()));
+        Map<String, JobAssignmentRepository.JobState> jobsByNo = new HashMap<>();
+        jobAssignmentRepository.findStatesByJobNos(requestsByJobNo.entrySet().stream()
+                        .filter(requests -> requests.getValue() == 1)
+                        .map(Map.Entry::getKey)
+                        .toList())
+                .forEach(job -> jobsByNo.put(job.getJobNo(), job));
+
+        List<JobAssignmentOutcome> outcomes = new ArrayList<>();
+        Set<Long> assignedJobIds = new LinkedHashSet<>();
+        for (AssignGradersRequest assignGradersRequest : assignGradersRequests) {
+            Users grader = graders.get(assignGradersRequest.getGraderId());
+            Map<Long, JobAssignmentOutcome> assignable = new LinkedHashMap<>();
+            for (String jobNo : Optional.ofNullable(assignGradersRequest.getJobNos()).orElse(List.of())) {
+                JobAssignmentRepository.JobState job = jobsByNo.get(jobNo);
+                JobAssignmentOutcome outcome = new JobAssignmentOutcome(jobNo, assignGradersRequest.getGraderId(), JobAssignmentOutcome.Outcome.ASSIGNED);
+                if(requestsByJobNo.getOrDefault(jobNo, 1L) > 1) {
+                    outcome.setOutcome(JobAssignmentOutcome.Outcome.DUPLICATE);
+                } else if(job == null) {
+                    outcome.setOutcome(JobAssignmentOutcome.Outcome.NOT_FOUND);
+                } else if(grader == null) {
+                    outcome.setOutcome(JobAssignmentOutcome.Outcome.GRADER_UNAVAILABLE);
+                } else if(Boolean.TRUE.equals(job.getIsGraded())) {
+                    outcome.setOutcome(JobAssignmentOutcome.Outcome.ALREADY_GRADED);
+                } else {
+                    assignable.put(job.getId(), outcome);
+                }
+                outcomes.add(outcome);
             }
-
-            List<CardSuborderJob> jobs = cardSuborderJobRepository.findByJobNos(assignGradersRequest.getJobNos());
-            if(jobs != null && !jobs.isEmpty()) {
-                jobs.forEach(job -> {
-                    job.setGrader(user.get());
-                    job.setGradingStatus(CardSuborderJob.StatusEnum.GRADING);
-                });
-                cardSuborderJobRepository.saveAll(jobs);
+            if(assignable.isEmpty()) {
+                continue;
             }
-        });
-        return null;
+            // the update skips jobs graded since they were read, those are looked up again only when it fell short.
+            Set<Long> gradedSinceRead = Set.of();
+            if(jobAssignmentRepository.assign(assignable.keySet(), grader, CardSuborderJob.StatusEnum.GRADING) < assignable.size()) {
+                gradedSinceRead = new HashSet<>(jobAssignmentRepository.findGradedIds(assignable.keySet()));
+            }
+            for (Map.Entry<Long, JobAssignmentOutcome> entry : assignable.entrySet()) {
+                if(gradedSinceRead.contains(entry.getKey())) {
+                    entry.getValue().setOutcome(JobAssignmentOutcome.Outcome.ALREADY_GRADED);
+                } else {
+                    assignedJobIds.add(entry.getKey());
+                }
+            }
+        }
+        log.info("Assigned {} of {} requested jobs", assignedJobIds.size(), outcomes.size());
+        gradingQueueProjectionService.refresh(new ArrayList<>(assignedJobIds));
+        return outcomes;
     }
 
     @Override
@@ -667,53 +800,44 @@ public class GradingServiceImpl implements GradingService {
 
     @Override
     public GradeResult calculateFinalGrades(String centering, String corners, String edges, String surface) {
-        List<RequestModel> toGrade = new ArrayList<>();
-        toGrade.add(new RequestModel(centering, "CENTER"));
-        toGrade.add(new RequestModel(corners, "CORNERS"));
-        toGrade.add(new RequestModel(edges, "EDGES"));
-        toGrade.add(new RequestModel(surface, "SURFACE"));
-
-        Set<SubGrade> subgradeSet = subGradeMapper.toSubGradeSet(toGrade);
-        //step 2 Sorting subgrades in ascending order:
-        List<SubGrade> sorted = getSorted(subgradeSet);
-        //step 3 Calculation of Diff Value
-        BigDecimal diffValue = calculateDiffValue(sorted);
-        //step 4 Formula selection step
-        Formulas formula = FormulaFactory.getFormula(diffValue, sorted);
-        GradeFormulaDTO gradeFormulas = findGradeFormulas(formula.getValue(), diffValue);
-        //step 7
-        BigDecimal formulaSum = calculateFormulaSum(sorted, gradeFormulas);
-        //step 8 + step 9
-        BigDecimal roundNumber = getGradeNumberByFormulaSum(formulaSum);
-        //step 10
-        BigDecimal bump = roundNumber.subtract(sorted.getFirst().getGrade());
-        //step 11
-        int bumpCount = getBumpCount(bump);
-        //step 12
-        BigDecimal takeOffNumber = getTakeoffNumber(formula, bumpCount);
-        //step 13
-        BigDecimal grading = roundNumber.subtract(takeOffNumber);
-        return new GradeResult(grading, gradingDescriptionMapper.getMapping(grading));
+        return gradingMetrics.record("calculate", metrics -> {
+            Optional<GradeResult> cached = gradeLattice.lookup(centering, corners, edges, surface);
+            metrics.items(1).stage("lattice");
+            return cached.orElseGet(() -> metrics.time("calculate", () -> gradeCalculator.calculate(centering, corners, edges, surface)));
+        });
     }
 
-    private boolean isGraderIsAtJuniorLevel(Long graderId) {//NOSONAR
-        boolean isJunior = false;
-        Optional<Users> grader = usersRepository.findById(graderId);
-        if(grader.isPresent() && Boolean.TRUE.equals(grader.get().getActive()) && Boolean.FALSE.equals(grader.get().getDeleted())) {
-            if (grader.get().getUserBusinessUnits() != null && !grader.get().getUserBusinessUnits().isEmpty()) {
-                for (UserBusinessUnit userBusinessUnit : grader.get().getUserBusinessUnits()) {
-                    if (userBusinessUnit.getUserBusinessUnitJobRoles() != null && !userBusinessUnit.getUserBusinessUnitJobRoles().isEmpty()) {
-                        for (UserBusinessUnitJobRole userBusinessUnitJobRole : userBusinessUnit.getUserBusinessUnitJobRoles()) {
-                            if (userBusinessUnitJobRole.getJobRole().getJobRoleName().toUpperCase().startsWith("GRAD")
-                                && !Objects.isNull(userBusinessUnitJobRole.getJobRoleLevel())) {
-                                return !userBusinessUnitJobRole.getJobRoleLevel().getJobRoleLevelValue().toUpperCase().startsWith("SR");
-                            }
-                        }
-                    }
-                }
-            }
-        } else throw new IllegalArgumentException("Logged in user is not active, please re-login with a diff user.");
-        return isJunior;
+    @Override
+    public List<GradeResult> calculateFinalGrades(List<CalculateGradeRequest> subGrades) {
+        // identical tuples are calculated once and the reference lookups are shared across the whole batch
+        GradeReferenceLookup lookup = new MemoizingGradeReferenceLookup(gradeReferenceIndex);
+        Map<CalculateGradeRequest, GradeResult> results = new HashMap<>();
+        return gradingMetrics.record("calculate-batch", metrics -> {
+            metrics.items(subGrades.size());
+            return subGrades.stream()
+                    .map(request -> results.computeIfAbsent(request, key -> metrics.time("lattice", () -> gradeLattice
+                                    .lookup(key.getCentering(), key.getCorners(), key.getEdges(), key.getSurface()))
+                            .orElseGet(() -> metrics.time("calculate", () -> gradeCalculator.calculate(key.getCentering(), key.getCorners(), key.getEdges(), key.getSurface(), lookup)))))
+                    .toList();
+        });
+    }
+
+    private boolean isGraderIsAtJuniorLevel(Long graderId) {
+        requireActive(graderId);
+        GraderProfile grader = graderProfileService.getProfile(graderId);
+        if(grader == null) {
+            throw new IllegalArgumentException("Logged in user is not active, please re-login with a diff user.");
+        }
+        return !grader.senior();
+    }
+
+    /**
+     * The cached profile may be up to its TTL old, deactivation has to take effect on the next grade write.
+     */
+    private void requireActive(Long graderId) {
+        if(!graderProfileService.isActive(graderId)) {
+            throw new IllegalArgumentException("Logged in user is not active, please re-login with a diff user.");
+        }
     }
 
     private void validateGradeVal(String itemName, ItemGrades grade) {
@@ -743,119 +867,4 @@ public class GradingServiceImpl implements GradingService {
             throw new IllegalArgumentException(String.format(Constants.FIELD_VALIDATION_MESSAGE, "Min Grade", itemName));
         }
     }
-
-    private String populateLocation(Long cardSubOrderJobId, List<JobLocationMapping> jobLocations) {
-        if(jobLocations != null && !jobLocations.isEmpty()) {
-            Optional<JobLocationMapping> jobLocationMappingOptional = jobLocations.stream().filter(jobLocationMapping -> Objects.equals(jobLocationMapping.getCardSuborderJob().getId(), cardSubOrderJobId)).findFirst();
-            if(jobLocationMappingOptional.isPresent()) {
-                Location location = jobLocationMappingOptional.get().getLocation();
-                return location.getName() + " - " + location.getLocationNumber();
-            }
-        }
-
-        return null;
-    }
-
-    private String populateUserRole(Users grader) { // NOSONAR
-        if(grader.getUserBusinessUnits() != null && !grader.getUserBusinessUnits().isEmpty()) {
-            for (UserBusinessUnit userBusinessUnit : grader.getUserBusinessUnits()) {
-                if(userBusinessUnit.getUserBusinessUnitJobRoles() != null && !userBusinessUnit.getUserBusinessUnitJobRoles().isEmpty()) {
-                    for (UserBusinessUnitJobRole userBusinessUnitJobRole : userBusinessUnit.getUserBusinessUnitJobRoles()) {
-                        if(userBusinessUnitJobRole.getJobRole().getJobRoleName().toUpperCase().startsWith("GRAD")) {
-                            return userBusinessUnitJobRole.getJobRole().getJobRoleName() + " " + userBusinessUnitJobRole.getJobRoleLevel().getJobRoleLevelValue();
-                        }
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
-    private String populateServiceLevel(Integer serviceLevelId, List<ServiceLevel> serviceLevelList) {
-        if(serviceLevelList != null && !serviceLevelList.isEmpty()) {
-            Optional<ServiceLevel> serviceLevelOptional = serviceLevelList.stream().filter(serviceLevel -> Objects.equals(serviceLevel.getServiceLevelId(), serviceLevelId)).findFirst();
-            if(serviceLevelOptional.isPresent()) {
-                return serviceLevelOptional.get().getName();
-            }
-        }
-        return null;
-    }
-
-    private GradeFormulaDTO findGradeFormulas(String name, BigDecimal diffValue) {
-        GradeFormula formula = gradeFormulaRepository
-                .findFirstByGradeNameAndGradeBeginningLessThanEqualAndGradeEndingGreaterThanEqual(name, diffValue, diffValue)
-                .orElseThrow(FormulaNotFoundException::new);
-        return gradeFormulaMapper.map(formula);
-    }
-
-    private BigDecimal calculateFormulaSum(List<SubGrade> sortedSubGrades, GradeFormulaDTO gradeFormulaDTO) {
-        if (sortedSubGrades.size() != 4) {
-            throw new SubGradeSizeExceeded("Expected=4, got=" + sortedSubGrades.size());
-        }
-
-
-        return sortedSubGrades.get(0).getGrade().multiply(gradeFormulaDTO.getGrade1())
-                .add(sortedSubGrades.get(1).getGrade().multiply(gradeFormulaDTO.getGrade2()))
-                .add(sortedSubGrades.get(2).getGrade().multiply(gradeFormulaDTO.getGrade3()))
-                .add(sortedSubGrades.get(3).getGrade().multiply(gradeFormulaDTO.getGrade4()));
-    }
-    private BigDecimal getGradeNumberByFormulaSum(BigDecimal formulaSum) {
-        return gradeRoundNumberRepository
-                .findFirstByNumberEndingGreaterThanEqualAndNumberBeginningLessThanEqual(formulaSum, formulaSum)
-                .map(GradeRoundNumber::getNumber)
-                .orElseGet(() -> new BigDecimal(10));
-    }
-    private int getBumpCount(BigDecimal bump) {
-        return takeOffReferenceRepository.countByNumberLessThanEqual(bump);
-    }
-
-    private BigDecimal getTakeoffNumber(Formulas formulas, int bumpCount) {
-
-        if (Objects.requireNonNull(formulas) == Formulas.CORNERS || formulas == Formulas.SURFACE_AND_EDGES) {
-            if (bumpCount >= 2) {
-                return new BigDecimal(bumpCount - 2)
-                        .setScale(2, RoundingMode.HALF_EVEN)
-                        .divide(BigDecimal.TWO, RoundingMode.HALF_EVEN);
-            } else {
-                return BigDecimal.ZERO;
-            }
-        } else if (formulas == Formulas.CENTERING) {
-            if (bumpCount >= 4) {
-                return new BigDecimal(bumpCount - 4)
-                        .setScale(2, RoundingMode.HALF_EVEN)
-                        .divide(BigDecimal.TWO, RoundingMode.HALF_EVEN);
-            } else {
-                return BigDecimal.ZERO;
-            }
-        }
-        return BigDecimal.ZERO;
-    }
-
-    private List<SubGrade> getSorted(Set<SubGrade> toGrade) {
-        return toGrade.stream()
-                .sorted(Comparator.comparing(SubGrade::getGrade))
-                .toList();
-    }
-
-    private BigDecimal calculateDiffValue(List<SubGrade> sortedSubGrades) {
-        return sortedSubGrades.get(1).getGrade().subtract(sortedSubGrades.get(0).getGrade());
-    }
-
-    private void triggerSubOrderGradedEmailToCustomer(
-            String suborderNo, String invoiceNo, String customerEmail, String firstName) {
-        EmailRequest emailRequest = new EmailRequest();
-        emailRequest.setRecipients(Collections.singletonList(
-                customerEmail
-        ));
-        emailRequest.setTemplateName(SUBORDER_GRADED_TEMPLATE_NAME);
-        Map<String, String> templateData = new HashMap<>();
-        templateData.put(SUBMISSION_ID, String.valueOf(suborderNo));
-        templateData.put(FIRST_NAME, firstName);
-        templateData.put(INVOICE_NO, invoiceNo);
-        emailRequest.setTemplateData(templateData);
-
-        emailTriggerService.sendEmail(emailRequest);
-        log.info("Suborder graded email is been sent to the customer for suborder no: {}",
-                suborderNo);
-    }
 }
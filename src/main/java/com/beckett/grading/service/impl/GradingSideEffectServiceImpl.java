@@ -0,0 +1,188 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.common.dto.EmailRequest;
+import com.beckett.customer.entity.Customer;
+import com.beckett.customer.repository.CustomerRepository;
+import com.beckett.grading.outbox.GradingOutbox;
+import com.beckett.grading.outbox.OutboxEventType;
+import com.beckett.grading.outbox.OutboxPayloads;
+import com.beckett.grading.service.CRMSyncService;
+import com.beckett.grading.service.EmailTriggerService;
+import com.beckett.grading.service.GradingQueueProjectionService;
+import com.beckett.grading.service.GradingRollupService;
+import com.beckett.grading.service.GradingSideEffectService;
+import com.beckett.grading.dto.LabelLines;
+import com.beckett.grading.utils.LabelLineLayout;
+import com.beckett.grading.utils.LabelWarehouseWriter;
+import com.beckett.order.constant.OrderStatus;
+import com.beckett.order.constant.SuborderStatus;
+import com.beckett.order.entity.*;
+import com.beckett.order.repository.*;
+import com.beckett.shdsvc.entity.*;
+import com.beckett.shdsvc.enums.DealStageEnum;
+import com.beckett.shdsvc.repository.*;
+import io.micrometer.common.util.StringUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+import static com.beckett.common.util.Constants.*;
+
+/**
+ * The post grading work of submitGrades and finalizeGrades, run by the outbox dispatcher. The roll ups and the label
+ * write each run in a transaction of their own, the CRM and email calls hold none.
+ * Follow up calls to the CRM and the customer email are queued as outbox events again so they retry independently,
+ * CRM updates are held back for the coalesce window so the updates of one deal go out as a single call.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class GradingSideEffectServiceImpl implements GradingSideEffectService {
+
+    private final CardSuborderJobRepository cardSuborderJobRepository;
+    private final CardSuborderItemRepository cardSuborderItemRepository;
+    private final CardSuborderRepository cardSuborderRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerRepository customerRepository;
+    private final CRMSyncService crmSyncService;
+    private final EmailTriggerService emailTriggerService;
+    private final GradingQueueProjectionService gradingQueueProjectionService;
+    private final GradingRollupService gradingRollupService;
+    private final GradingOutbox gradingOutbox;
+    private final LabelLineLayout labelLineLayout;
+    private final LabelWarehouseWriter labelWarehouseWriter;
+
+    @Value("${grading.crm.coalesce-window:PT30S}")
+    private Duration crmCoalesceWindow;
+
+    @Value("${grading.email.batch-window:PT10S}")
+    private Duration emailBatchWindow;
+
+    @Value("${grading.email.dedup-window:PT24H}")
+    private Duration emailDedupWindow;
+
+    @Override
+    @Transactional
+    public void rollUpSubmitted(Long cardSuborderJobId) {
+        CardSuborderJob finalCardSuborderJob = cardSuborderJobRepository.findById(cardSuborderJobId).orElseThrow();
+        // updating sub order and order level status to Grading
+        if(finalCardSuborderJob.getCardSuborder() != null
+                && finalCardSuborderJob.getCardSuborder().getOrder() != null
+                && finalCardSuborderJob.getCardSuborder().getOrder().getSuborders() != null
+                && !finalCardSuborderJob.getCardSuborder().getOrder().getSuborders().isEmpty()) {
+            CardSuborder cardSuborder = finalCardSuborderJob.getCardSuborder();
+            cardSuborder.setSuborderStatus(SuborderStatus.GRADING);
+            CardSuborderStatus cardSuborderStatus = cardSuborder.getCardSuborderStatus();
+            if(cardSuborderStatus != null) cardSuborderStatus.setSuborderStatus(SuborderStatus.GRADING);
+            cardSuborderRepository.save(cardSuborder);
+
+            //HUBSPOT UPDATE
+            gradingOutbox.enqueue(OutboxEventType.CRM_DEAL_UPDATE, new OutboxPayloads.DealStage(cardSuborder.getCrmDealId(), DealStageEnum.L1_GRADED), crmCoalesceWindow);
+
+            Order order = finalCardSuborderJob.getCardSuborder().getOrder();
+            order.setOrderStatus(OrderStatus.GRADING);
+            orderRepository.save(order);
+            gradingQueueProjectionService.updateOrderStatus(order.getOrderId(), order.getOrderStatus().value());
+            log.info("SubmitGrades::Order & Sub Order status moved to Grading ");
+        } else {
+            log.warn("SubmitGrades::CardSubOrder not found from Card Sub Order Job");
+        }
+    }
+
+    @Override
+    @Transactional
+    public void rollUpFinalized(Long cardSuborderJobId) {
+        CardSuborderJob finalCardSuborderJob = cardSuborderJobRepository.findById(cardSuborderJobId).orElseThrow();
+        // count the job towards its sub order, the roll-up that grades the last job updates the sub order.
+        if(!gradingRollupService.jobGraded(finalCardSuborderJob)) {
+            log.warn("All the jobs are not graded yet hence skipping the root level updates.");
+            return;
+        }
+        // marking the sub order to Graded since all the jobs are graded now.
+        CardSuborder suborder = finalCardSuborderJob.getCardSuborder();
+        suborder.setSuborderStatus(SuborderStatus.GRADED);
+        suborder.getCardSuborderStatus().setSuborderStatus(SuborderStatus.GRADED);
+        suborder.getCardSuborderStatus().setIsGraded(Boolean.TRUE);
+        suborder.getCardSuborderStatus().setGradedOn(LocalDateTime.now());
+        cardSuborderRepository.save(suborder);
+
+        //HUBSPOT UPDATE
+        gradingOutbox.enqueue(OutboxEventType.CRM_DEAL_UPDATE, new OutboxPayloads.DealStage(suborder.getCrmDealId(), DealStageEnum.GRADED), crmCoalesceWindow);
+        Order order = suborder.getOrder();
+        if(order == null) {
+            return;
+        }
+        Optional<Customer> customer = customerRepository.findByEmail(order.getCustomerEmail());
+        //Send Email post verification
+        customer.ifPresent(value -> {
+            OutboxPayloads.SuborderGradedEmail email = new OutboxPayloads.SuborderGradedEmail(
+                    suborder.getSuborderNo(),
+                    INVOICE_NO_PREFIX + suborder.getSuborderNo(),
+                    value.getEmail(),
+                    value.getFirstName());
+            gradingOutbox.enqueueOnce(OutboxEventType.SUBORDER_GRADED_EMAIL, email, emailBatchWindow, email.dedupKey(), emailDedupWindow);
+        });
+
+        // going into order level now, the roll-up that grades the last card sub order updates the order.
+        if(gradingRollupService.suborderGraded(order, suborder)) {
+            order.setOrderStatus(OrderStatus.GRADED);
+            orderRepository.save(order);
+            gradingQueueProjectionService.updateOrderStatus(order.getOrderId(), order.getOrderStatus().value());
+        }
+    }
+
+    @Override
+    @Transactional
+    public void writeCardLabels(List<Long> cardSuborderItemIds) {
+        List<CardSuborderItem> gradedItems = cardSuborderItemRepository.findAllById(cardSuborderItemIds);
+        // card label impl for all items in this job or bucket
+        Map<String, LabelLines> linesByItemMasterId = new LinkedHashMap<>();
+        gradedItems.stream().filter(item -> StringUtils.isNotBlank(item.getItemMasterId()))
+                .forEach(item -> linesByItemMasterId.put(item.getItemMasterId(), labelLineLayout.lines(item)));
+        if(!linesByItemMasterId.isEmpty()) {
+            LabelWarehouseWriter.UpsertCounts counts = labelWarehouseWriter.upsert(linesByItemMasterId);
+            log.info("Card label warehouse updated for {} item master ids: {} inserted, {} updated, {} unchanged",
+                    linesByItemMasterId.size(), counts.inserted(), counts.updated(), counts.unchanged());
+        }
+    }
+
+    @Override
+    public void updateDeal(String dealId, DealStageEnum dealStage) {
+        crmSyncService.updateDeal(dealId, dealStage);
+    }
+
+    @Override
+    public void sendSuborderGradedEmail(String suborderNo, String invoiceNo, String customerEmail, String firstName) {
+        emailTriggerService.sendEmail(suborderGradedEmail(suborderNo, invoiceNo, customerEmail, firstName));
+        log.info("Suborder graded email is been sent to the customer for suborder no: {}",
+                suborderNo);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendSuborderGradedEmailAsync(String suborderNo, String invoiceNo, String customerEmail, String firstName) {
+        return emailTriggerService.sendEmailAsync(suborderGradedEmail(suborderNo, invoiceNo, customerEmail, firstName))
+                .thenRun(() -> log.info("Suborder graded email is been sent to the customer for suborder no: {}",
+                        suborderNo));
+    }
+
+    private EmailRequest suborderGradedEmail(String suborderNo, String invoiceNo, String customerEmail, String firstName) {
+        EmailRequest emailRequest = new EmailRequest();
+        emailRequest.setRecipients(Collections.singletonList(
+                customerEmail
+        ));
+        emailRequest.setTemplateName(SUBORDER_GRADED_TEMPLATE_NAME);
+        Map<String, String> templateData = new HashMap<>();
+        templateData.put(SUBMISSION_ID, String.valueOf(suborderNo));
+        templateData.put(FIRST_NAME, firstName);
+        templateData.put(INVOICE_NO, invoiceNo);
+        emailRequest.setTemplateData(templateData);
+        return emailRequest;
+    }
+}
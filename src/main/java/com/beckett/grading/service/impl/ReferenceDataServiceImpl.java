@@ -0,0 +1,129 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.grading.config.CacheConfig;
+import com.beckett.grading.service.ReferenceDataService;
+import com.beckett.grading.utils.Constants;
+import com.beckett.shdsvc.entity.*;
+import com.beckett.shdsvc.repository.*;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Read through caches over the shared service reference tables. The cached entities are detached, they are only
+ * read or set as references on the entities being saved.
+ */
+@Transactional(readOnly = true)
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ReferenceDataServiceImpl implements ReferenceDataService {
+
+    // grade values accepted by GradeUtils.isValidGradeVal, 1.0 to 10.0 in steps of 0.5
+    private static final int MIN_GRADE_HALF_STEPS = 2;
+    private static final int MAX_GRADE_HALF_STEPS = 20;
+
+    private final ServiceLevelRepository serviceLevelRepository;
+    private final GradingRepository gradingRepository;
+    private final GradingServiceTypeRepository gradingServiceTypeRepository;
+    private final MasterCategoryRepository masterCategoryRepository;
+    private final DealStageRepository dealStageRepository;
+    private final CacheManager cacheManager;
+
+    @Value("${grading.cache.reference-data.preload:true}")
+    private boolean preloadEnabled;
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.SERVICE_LEVELS, key = "#serviceLevelId")
+    public Optional<ServiceLevel> getServiceLevel(Integer serviceLevelId) {
+        return serviceLevelRepository.findById(serviceLevelId);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GRADE_MASTERS, key = "#gradeValue")
+    public Optional<GradeMaster> getGradeMaster(Double gradeValue) {
+        return gradingRepository.findByGradeValue(gradeValue);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.GRADING_SERVICE_TYPES, key = "#gradingServiceTypeId")
+    public Optional<GradingServiceType> getGradingServiceType(Integer gradingServiceTypeId) {
+        return gradingServiceTypeRepository.findById(gradingServiceTypeId);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.MASTER_CATEGORIES, key = "#name.toLowerCase()")
+    public Optional<MasterCategory> getMasterCategory(String name) {
+        return masterCategoryRepository.findByNameIgnoreCase(name);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.DEAL_STAGES, key = "#dealStageName")
+    public Optional<DealStage> getDealStage(String dealStageName) {
+        return dealStageRepository.findByDealStageName(dealStageName);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preloadOnStartup() {
+        if(preloadEnabled) {
+            try {
+                preload();
+            } catch (RuntimeException e) {
+                // the caches still read through, a failed preload only costs the first lookups
+                log.warn("Reference data preload failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void preload() {
+        Cache serviceLevels = cache(CacheConfig.SERVICE_LEVELS);
+        serviceLevelRepository.findAll().forEach(serviceLevel -> serviceLevels.put(serviceLevel.getServiceLevelId(), serviceLevel));
+
+        Cache masterCategories = cache(CacheConfig.MASTER_CATEGORIES);
+        masterCategoryRepository.findAll().stream()
+                .filter(category -> category.getName() != null)
+                .forEach(category -> masterCategories.putIfAbsent(category.getName().toLowerCase(), category));
+
+        Cache dealStages = cache(CacheConfig.DEAL_STAGES);
+        dealStageRepository.findAll().forEach(dealStage -> dealStages.put(dealStage.getDealStageName(), dealStage));
+
+        Cache gradingServiceTypes = cache(CacheConfig.GRADING_SERVICE_TYPES);
+        gradingServiceTypes.put(Constants.DEFAULT_GRADING_SERVICE_TYPE_ID,
+                gradingServiceTypeRepository.findById(Constants.DEFAULT_GRADING_SERVICE_TYPE_ID).orElse(null));
+
+        Cache gradeMasters = cache(CacheConfig.GRADE_MASTERS);
+        for(int halfSteps = MIN_GRADE_HALF_STEPS; halfSteps <= MAX_GRADE_HALF_STEPS; halfSteps++) {
+            double gradeValue = halfSteps / 2.0;
+            gradeMasters.put(gradeValue, gradingRepository.findByGradeValue(gradeValue).orElse(null));
+        }
+        log.info("Reference data caches preloaded");
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.SERVICE_LEVELS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GRADE_MASTERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.GRADING_SERVICE_TYPES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.MASTER_CATEGORIES, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.DEAL_STAGES, allEntries = true)})
+    public void evictAll() {
+        log.info("Reference data caches evicted");
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), name);
+    }
+}
@@ -0,0 +1,309 @@
+package com.beckett.grading.service.impl;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.entity.GradingQueueEvent;
+import com.beckett.grading.repository.GradingQueueEventRepository;
+import com.beckett.grading.response.WorkQueueChange;
+import com.beckett.grading.service.WorkQueueStreamService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Server sent work queue deltas. The queue projection records an event per changed row in the transaction of the
+ * change, every instance polls the event table and pushes what it finds to its own subscribers, so a client sees the
+ * changes made through any instance. Events are dispatched in id order without gaps: a missing id is an event of a
+ * transaction that has not committed yet, so the poll stops there. A gap still open after gap-timeout, measured on
+ * this instance's clock, is taken as a rolled back transaction and passed, with a RESYNC to every subscriber in case
+ * it commits later after all. A client resuming with Last-Event-ID gets the events it
+ * missed replayed, or a RESYNC event telling it to reload the queue once when they are no longer retained or more
+ * than max-replay. Events are queued per subscriber under the cursor lock and written to the emitters outside of it,
+ * so a slow client holds up neither the poll nor new subscriptions.
+ * The stream is fed by the queue read model, enabling it without grading.queue.read-model.enabled fails startup.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class WorkQueueStreamServiceImpl implements WorkQueueStreamService {
+
+    private static final String RESYNC = "RESYNC";
+
+    private final GradingQueueEventRepository gradingQueueEventRepository;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Object cursorLock = new Object();
+
+    // id of the last event pushed to the subscribers, -1 until the first poll
+    private long cursor = -1;
+    // cursor at which the poll last found a gap and when, System.nanoTime
+    private long gapAfter = -1;
+    private long gapSeenAt;
+
+    @Value("${grading.queue.events.enabled:false}")
+    private boolean enabled;
+
+    @Value("${grading.queue.read-model.enabled:false}")
+    private boolean readModelEnabled;
+
+    @Value("${grading.queue.events.gap-timeout:PT30S}")
+    private Duration gapTimeout;
+
+    @Value("${grading.queue.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${grading.queue.events.max-replay:1000}")
+    private int maxReplay;
+
+    @Value("${grading.queue.events.emitter-timeout:PT30M}")
+    private Duration emitterTimeout;
+
+    @Value("${grading.queue.events.retention:P2D}")
+    private Duration retention;
+
+    @PostConstruct
+    public void validate() {
+        if (enabled && !readModelEnabled) {
+            throw new IllegalArgumentException("grading.queue.events.enabled requires grading.queue.read-model.enabled, "
+                    + "work queue events are recorded by the read model projection.");
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Map<Long, GradingQueueEntry> previousById, Collection<GradingQueueEntry> entries, LocalDateTime recordedOn) {
+        List<GradingQueueEvent> events = new ArrayList<>();
+        for (GradingQueueEntry entry : entries) {
+            GradingQueueEntry previous = previousById.get(entry.getCardSubOrderJobId());
+            boolean eligible = Boolean.TRUE.equals(entry.getQueueEligible());
+            boolean wasEligible = previous != null && Boolean.TRUE.equals(previous.getQueueEligible());
+            if (!eligible) {
+                if (wasEligible) {
+                    events.add(event(GradingQueueEvent.Type.REMOVED, entry, previous, recordedOn));
+                }
+            } else if (!wasEligible) {
+                events.add(event(GradingQueueEvent.Type.QUEUED, entry, previous, recordedOn));
+            } else {
+                if (!Objects.equals(previous.getGraderId(), entry.getGraderId())) {
+                    events.add(event(GradingQueueEvent.Type.ASSIGNED, entry, previous, recordedOn));
+                }
+                if (!Objects.equals(previous.getGradingStatus(), entry.getGradingStatus())) {
+                    events.add(event(GradingQueueEvent.Type.STATUS_CHANGED, entry, previous, recordedOn));
+                }
+                if (!Objects.equals(previous.getLocationId(), entry.getLocationId())) {
+                    events.add(event(GradingQueueEvent.Type.LOCATION_CHANGED, entry, previous, recordedOn));
+                }
+            }
+        }
+        if (!events.isEmpty()) {
+            gradingQueueEventRepository.saveAll(events);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Collection<GradingQueueEntry> retired, LocalDateTime recordedOn) {
+        if (!retired.isEmpty()) {
+            gradingQueueEventRepository.saveAll(retired.stream()
+                    .map(entry -> event(GradingQueueEvent.Type.REMOVED, entry, entry, recordedOn)).toList());
+        }
+    }
+
+    @Override
+    public SseEmitter subscribe(Filter filter, Long lastEventId) {
+        if (!enabled) {
+            throw new IllegalArgumentException("The work queue change stream is not enabled.");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(filter, emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        synchronized (cursorLock) {
+            if (cursor < 0) {
+                cursor = gradingQueueEventRepository.findMaxId();
+            }
+            if (lastEventId != null && lastEventId < cursor) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+        subscriber.drain();
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${grading.queue.events.poll-interval-ms:1000}")
+    public void dispatch() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (cursorLock) {
+            if (cursor < 0) {
+                cursor = gradingQueueEventRepository.findMaxId();
+                return;
+            }
+            List<GradingQueueEvent> events;
+            poll:
+            do {
+                events = gradingQueueEventRepository.findBetween(cursor, Long.MAX_VALUE, PageRequest.of(0, batchSize));
+                for (GradingQueueEvent event : events) {
+                    if (event.getId() != cursor + 1) {
+                        if (!gapTimedOut()) {
+                            break poll;
+                        }
+                        log.warn("Work queue events {} to {} did not commit within {}, asking subscribers to resync",
+                                cursor + 1, event.getId() - 1, gapTimeout);
+                        subscribers.forEach(Subscriber::resync);
+                    }
+                    subscribers.forEach(subscriber -> subscriber.offer(event));
+                    cursor = event.getId();
+                }
+            } while (events.size() == batchSize);
+        }
+        subscribers.forEach(Subscriber::drain);
+    }
+
+    /**
+     * Whether the gap after the cursor has been open for gap-timeout, starting the clock when it is first seen.
+     */
+    private boolean gapTimedOut() {
+        long now = System.nanoTime();
+        if (gapAfter != cursor) {
+            gapAfter = cursor;
+            gapSeenAt = now;
+        }
+        return now - gapSeenAt >= gapTimeout.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${grading.queue.events.heartbeat-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> {
+            subscriber.heartbeat();
+            subscriber.drain();
+        });
+    }
+
+    @Transactional
+    @Scheduled(cron = "${grading.queue.events.cleanup-cron:0 45 3 * * *}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = gradingQueueEventRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        log.info("Work queue event cleanup removed {} events", deleted);
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        if (lastEventId < gradingQueueEventRepository.findMinId() - 1) {
+            subscriber.resync();
+            return;
+        }
+        List<GradingQueueEvent> missed = gradingQueueEventRepository.findBetween(lastEventId, cursor, PageRequest.of(0, maxReplay + 1));
+        if (missed.size() > maxReplay) {
+            subscriber.resync();
+            return;
+        }
+        missed.forEach(subscriber::offer);
+    }
+
+    private static GradingQueueEvent event(GradingQueueEvent.Type type, GradingQueueEntry entry, GradingQueueEntry previous, LocalDateTime recordedOn) {
+        GradingQueueEvent event = new GradingQueueEvent();
+        event.setEventType(type);
+        event.setCardSubOrderJobId(entry.getCardSubOrderJobId());
+        event.setJobNo(entry.getJobNo());
+        event.setGraderId(entry.getGraderId());
+        event.setLocationId(entry.getLocationId());
+        event.setServiceLevelId(entry.getServiceLevelId());
+        event.setGradingStatus(entry.getGradingStatus());
+        if (previous != null) {
+            event.setPreviousGraderId(previous.getGraderId());
+            event.setPreviousLocationId(previous.getLocationId());
+        }
+        event.setCreatedOn(recordedOn);
+        return event;
+    }
+
+    private final class Subscriber {
+        private final Filter filter;
+        private final SseEmitter emitter;
+        // filled under the cursor lock, written to the emitter by whichever thread wins the drain
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(Filter filter, SseEmitter emitter) {
+            this.filter = filter;
+            this.emitter = emitter;
+        }
+
+        private void offer(GradingQueueEvent event) {
+            if (filter.matches(event)) {
+                pending.add(SseEmitter.event()
+                        .id(String.valueOf(event.getId()))
+                        .name(event.getEventType().name())
+                        .data(new WorkQueueChange(event.getId(), event.getEventType().name(), event.getCardSubOrderJobId(),
+                                event.getJobNo(), event.getGraderId(), event.getPreviousGraderId(), event.getLocationId(),
+                                event.getPreviousLocationId(), event.getServiceLevelId(), event.getGradingStatus(),
+                                event.getCreatedOn()), MediaType.APPLICATION_JSON));
+            }
+        }
+
+        private void resync() {
+            pending.add(SseEmitter.event().name(RESYNC).data(RESYNC));
+        }
+
+        private void heartbeat() {
+            pending.add(SseEmitter.event().comment("heartbeat"));
+        }
+
+        /**
+         * Sends the queued events in order, one thread at a time. The outer loop picks up events queued by another
+         * thread after this one's last poll but before it released the drain.
+         */
+        private void drain() {
+            while (!pending.isEmpty() && draining.compareAndSet(false, true)) {
+                try {
+                    SseEmitter.SseEventBuilder event;
+                    while ((event = pending.poll()) != null) {
+                        if (!send(event)) {
+                            pending.clear();
+                            return;
+                        }
+                    }
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping work queue subscriber", e);
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+}
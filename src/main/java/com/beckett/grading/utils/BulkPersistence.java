@@ -0,0 +1,35 @@
+package com.beckett.grading.utils;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk write mode for the per job grade, item and lookup writes. The block ends with a single flush at the bulk JDBC
+ * batch size, so a 1000 item job goes out as a handful of batched, type ordered inserts and updates instead of a
+ * statement per row. Meant for saves only: the flush mode is left alone, so a query inside the block still auto
+ * flushes and reads its own writes, at the cost of splitting the batches.
+ */
+@Component
+public class BulkPersistence {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${grading.jpa.bulk-batch-size:100}")
+    private int bulkBatchSize;
+
+    public void write(Runnable writes) {
+        Session session = entityManager.unwrap(Session.class);
+        Integer jdbcBatchSize = session.getJdbcBatchSize();
+        session.setJdbcBatchSize(bulkBatchSize);
+        try {
+            writes.run();
+            entityManager.flush();
+        } finally {
+            session.setJdbcBatchSize(jdbcBatchSize);
+        }
+    }
+}
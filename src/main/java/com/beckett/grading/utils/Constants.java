@@ -3,9 +3,7 @@ package com.beckett.grading.utils;
 public class Constants {
 
     private Constants() {}
-    public static final String ITEM_ATTR_NAME = "item_attr_name";
-    public static final String PLAYER_NAME = "player_name";
-    public static final String SET_NAME = "set_name";
     public static final String ITEM_NOT_FOUND = "Item not found with given id: {}";
     public static final String FIELD_VALIDATION_MESSAGE = "%s value entered is incorrect for Item: %s, grade of min 1 thru max 10, with increments of .5";
+    public static final int DEFAULT_GRADING_SERVICE_TYPE_ID = 1;
 }
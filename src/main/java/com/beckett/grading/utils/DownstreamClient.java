@@ -0,0 +1,65 @@
+package com.beckett.grading.utils;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.web.client.RestClient;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * One downstream HTTP service behind its own connection pool, circuit breaker and bulkheads. Blocking calls share a
+ * semaphore bulkhead, async calls run on the downstream's own bounded thread pool, so a slow downstream can only use
+ * up its own connections and threads. Calls are rejected fast while the circuit is open.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class DownstreamClient implements AutoCloseable {
+
+    @Getter
+    private final String name;
+    private final RestClient restClient;
+    private final CloseableHttpClient httpClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final ThreadPoolBulkhead threadPoolBulkhead;
+    private final GradingMetrics gradingMetrics;
+
+    public <T> T call(Function<RestClient, T> request) {
+        long started = System.nanoTime();
+        try {
+            T result = circuitBreaker.executeSupplier(
+                    Bulkhead.decorateSupplier(bulkhead, () -> request.apply(restClient)));
+            gradingMetrics.downstreamCall(name, started, null);
+            return result;
+        } catch (RuntimeException e) {
+            gradingMetrics.downstreamCall(name, started, e);
+            throw e;
+        }
+    }
+
+    public <T> CompletableFuture<T> callAsync(Function<RestClient, T> request) {
+        long started = System.nanoTime();
+        return circuitBreaker.executeCompletionStage(
+                () -> threadPoolBulkhead.executeSupplier(() -> request.apply(restClient)))
+                .toCompletableFuture()
+                .whenComplete((result, failure) -> gradingMetrics.downstreamCall(name, started,
+                        failure instanceof CompletionException ? failure.getCause() : failure));
+    }
+
+    @Override
+    public void close() {
+        try {
+            threadPoolBulkhead.close();
+            httpClient.close();
+        } catch (Exception e) {
+            log.warn("Closing the {} http client failed", name, e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.beckett.grading.utils;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Per operation metrics of the grading flows, all tagged with operation, service_level and location:
+ * grading.operation (total time and outcome), grading.operation.stage (time per stage, a stage runs from the previous
+ * mark to its own), grading.operation.items (items per call) and grading.operation.repository.calls (repository calls
+ * per call, counted by the repository proxies on the thread running the operation). Tags are resolved when the
+ * operation ends, so they can be set as they become known. When grading.metrics.enabled is false operations are a
+ * shared no-op and nothing is read or recorded. The SQL statements behind the repository calls are asserted per
+ * operation by the tests.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradingMetrics {
+
+    public static final String ALL = "all";
+    public static final String UNKNOWN = "unknown";
+
+    // operation running on the thread, the one repository calls are counted against
+    private static final ThreadLocal<Operation> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Operation noop = new Operation(null, false);
+
+    @Value("${grading.metrics.enabled:true}")
+    private boolean enabled;
+
+    public Operation start(String operation) {
+        return enabled ? new Operation(operation, true) : noop;
+    }
+
+    /**
+     * Runs the work as the named operation, the outcome is error when it throws.
+     */
+    public <T> T record(String operation, Function<Operation, T> work) {
+        Operation metrics = start(operation);
+        Operation enclosing = CURRENT.get();
+        if (metrics.metered) {
+            CURRENT.set(metrics);
+        }
+        T result;
+        try {
+            result = work.apply(metrics);
+        } catch (RuntimeException e) {
+            metrics.end("error");
+            throw e;
+        } finally {
+            if (enclosing == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(enclosing);
+            }
+        }
+        metrics.end("success");
+        return result;
+    }
+
+    /**
+     * Counts a repository call against the operation running on this thread, if any.
+     */
+    public void repositoryCall() {
+        Operation current = CURRENT.get();
+        if (current != null) {
+            current.repositoryCalls++;
+        }
+    }
+
+    /**
+     * Outcome and latency of a call to a downstream service: success, error, or rejected when the circuit breaker or
+     * bulkhead turned it away.
+     */
+    public void downstreamCall(String client, long startedNanos, Throwable failure) {
+        if (!enabled) {
+            return;
+        }
+        String outcome = failure == null ? "success"
+                : failure instanceof CallNotPermittedException || failure instanceof BulkheadFullException ? "rejected" : "error";
+        Timer.builder("grading.downstream.calls")
+                .tags("client", client, "outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String resolve(Supplier<String> tag) {
+        try {
+            String value = tag.get();
+            return value == null ? UNKNOWN : value;
+        } catch (RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    public final class Operation {
+        private final String name;
+        private final boolean metered;
+        private final long startedNanos;
+        private final Map<String, Long> stageNanos;
+        private long markNanos;
+        private Supplier<String> serviceLevel = () -> UNKNOWN;
+        private Supplier<String> location = () -> UNKNOWN;
+        private int items = -1;
+        private int repositoryCalls;
+
+        private Operation(String name, boolean metered) {
+            this.name = name;
+            this.metered = metered;
+            this.startedNanos = metered ? System.nanoTime() : 0;
+            this.stageNanos = metered ? new LinkedHashMap<>() : Map.of();
+            this.markNanos = startedNanos;
+        }
+
+        /**
+         * Ends the current stage, the time since the previous mark is added to it.
+         */
+        public Operation stage(String stage) {
+            if (metered) {
+                long now = System.nanoTime();
+                stageNanos.merge(stage, now - markNanos, Long::sum);
+                markNanos = now;
+            }
+            return this;
+        }
+
+        /**
+         * Times a nested piece of work into its own stage without moving the mark, its time stays part of the
+         * enclosing stage as well.
+         */
+        public <T> T time(String stage, Supplier<T> work) {
+            if (!metered) {
+                return work.get();
+            }
+            long started = System.nanoTime();
+            try {
+                return work.get();
+            } finally {
+                stageNanos.merge(stage, System.nanoTime() - started, Long::sum);
+            }
+        }
+
+        public Operation serviceLevel(Object serviceLevel) {
+            return serviceLevel(() -> serviceLevel == null ? ALL : String.valueOf(serviceLevel));
+        }
+
+        public Operation serviceLevel(Supplier<String> serviceLevel) {
+            this.serviceLevel = serviceLevel;
+            return this;
+        }
+
+        public Operation location(Object location) {
+            this.location = () -> location == null ? ALL : String.valueOf(location);
+            return this;
+        }
+
+        public Operation items(int items) {
+            this.items = items;
+            return this;
+        }
+
+        public void end(String outcome) {
+            if (metered) {
+                meter(outcome);
+            }
+        }
+
+        private void meter(String outcome) {
+            long endedNanos = System.nanoTime();
+            Tags tags = Tags.of("operation", name, "service_level", resolve(serviceLevel), "location", resolve(location));
+            Timer.builder("grading.operation")
+                    .tags(tags.and("outcome", outcome))
+                    .register(meterRegistry)
+                    .record(endedNanos - startedNanos, TimeUnit.NANOSECONDS);
+            stageNanos.forEach((stage, nanos) -> Timer.builder("grading.operation.stage")
+                    .tags(tags.and("stage", stage))
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS));
+            DistributionSummary.builder("grading.operation.repository.calls")
+                    .tags(tags)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(repositoryCalls);
+            if (items >= 0) {
+                DistributionSummary.builder("grading.operation.items")
+                        .tags(tags)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(items);
+            }
+        }
+    }
+}
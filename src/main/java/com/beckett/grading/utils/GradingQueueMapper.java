@@ -0,0 +1,136 @@
+package com.beckett.grading.utils;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.response.GradingQueue;
+import com.beckett.location.entity.JobLocationMapping;
+import com.beckett.location.entity.Location;
+import com.beckett.order.entity.CardSuborder;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.order.entity.Order;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.grading.service.GraderProfileService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps card sub order jobs to work queue rows, either straight from the entity graph or through the flat
+ * {@link GradingQueueEntry} read model.
+ */
+@Component
+@RequiredArgsConstructor
+public class GradingQueueMapper {
+
+    private static final DateTimeFormatter DUE_DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private final GraderProfileService graderProfileService;
+
+    public GradingQueue toGradingQueue(CardSuborderJob cardSuborderJob, Map<Long, Location> locationsByJobId,
+                                       Map<Integer, ServiceLevel> serviceLevelsById) {
+        GradingQueue gradingQueue = new GradingQueue();
+        CardSuborder cardSuborder = cardSuborderJob.getCardSuborder();
+        Order order = cardSuborderJob.getCardSuborder().getOrder();
+        gradingQueue.setOrderId(order.getOrderId());
+        gradingQueue.setSubOrderId(cardSuborder.getSuborderId());
+        gradingQueue.setCardSubOrderId(cardSuborder.getCardSuborderId());
+        gradingQueue.setCardSubOrderJobId(cardSuborderJob.getId());
+        gradingQueue.setOrderNo(order.getOrderNo());
+        gradingQueue.setSubOrderNo(cardSuborder.getSuborderNo());
+        gradingQueue.setJobNo(cardSuborderJob.getJobNo());
+        gradingQueue.setTotalNoOfItems(cardSuborderJob.getItemCount());
+        gradingQueue.setDueDate(cardSuborder.getDueDate().format(DUE_DATE_FORMAT));
+        gradingQueue.setServiceLevel(populateServiceLevel(cardSuborder.getServiceLevelId().intValue(), serviceLevelsById));
+        gradingQueue.setUserRole(cardSuborderJob.getGrader() != null ? graderProfileService.getProfile(cardSuborderJob.getGrader()).roleLabel() : null);
+        gradingQueue.setAssignedTo(cardSuborderJob.getGrader() != null ? cardSuborderJob.getGrader().getUserId(): null);
+        gradingQueue.setLocation(populateLocation(locationsByJobId.get(cardSuborderJob.getId())));
+        gradingQueue.setGradingStatus(cardSuborderJob.getGradingStatus() != null ? cardSuborderJob.getGradingStatus().name() : CardSuborderJob.StatusEnum.READY_TO_GRADE.name());
+        gradingQueue.setOrderStatus(order.getOrderStatus().value());
+        return gradingQueue;
+    }
+
+    public GradingQueue toGradingQueue(GradingQueueEntry entry) {
+        GradingQueue gradingQueue = new GradingQueue();
+        gradingQueue.setOrderId(entry.getOrderId());
+        gradingQueue.setSubOrderId(entry.getSubOrderId());
+        gradingQueue.setCardSubOrderId(entry.getCardSubOrderId());
+        gradingQueue.setCardSubOrderJobId(entry.getCardSubOrderJobId());
+        gradingQueue.setOrderNo(entry.getOrderNo());
+        gradingQueue.setSubOrderNo(entry.getSubOrderNo());
+        gradingQueue.setJobNo(entry.getJobNo());
+        gradingQueue.setTotalNoOfItems(entry.getTotalNoOfItems());
+        gradingQueue.setDueDate(entry.getDueDate() != null ? entry.getDueDate().format(DUE_DATE_FORMAT) : null);
+        gradingQueue.setServiceLevel(entry.getServiceLevel());
+        gradingQueue.setUserRole(entry.getUserRole());
+        gradingQueue.setAssignedTo(entry.getGraderId());
+        gradingQueue.setLocation(entry.getLocation());
+        gradingQueue.setGradingStatus(entry.getGradingStatus());
+        gradingQueue.setOrderStatus(entry.getOrderStatus());
+        return gradingQueue;
+    }
+
+    /**
+     * Builds the read model row for a job, the displayed values come from {@link #toGradingQueue(CardSuborderJob, Map, Map)}
+     * so both paths render the same queue.
+     */
+    public GradingQueueEntry toEntry(CardSuborderJob cardSuborderJob, Map<Long, Location> locationsByJobId,
+                                     Map<Integer, ServiceLevel> serviceLevelsById) {
+        GradingQueue gradingQueue = toGradingQueue(cardSuborderJob, locationsByJobId, serviceLevelsById);
+        CardSuborder cardSuborder = cardSuborderJob.getCardSuborder();
+        GradingQueueEntry entry = new GradingQueueEntry();
+        entry.setCardSubOrderJobId(gradingQueue.getCardSubOrderJobId());
+        entry.setOrderId(gradingQueue.getOrderId());
+        entry.setSubOrderId(gradingQueue.getSubOrderId());
+        entry.setCardSubOrderId(gradingQueue.getCardSubOrderId());
+        entry.setOrderNo(gradingQueue.getOrderNo());
+        entry.setSubOrderNo(gradingQueue.getSubOrderNo());
+        entry.setJobNo(gradingQueue.getJobNo());
+        entry.setTotalNoOfItems(gradingQueue.getTotalNoOfItems());
+        entry.setDueDate(LocalDate.from(cardSuborder.getDueDate()));
+        entry.setServiceLevelId(cardSuborder.getServiceLevelId());
+        entry.setServiceLevel(gradingQueue.getServiceLevel());
+        entry.setGraderId(gradingQueue.getAssignedTo());
+        entry.setGraderEmail(cardSuborderJob.getGrader() != null ? cardSuborderJob.getGrader().getEmail() : null);
+        entry.setGradedBy(cardSuborderJob.getGradedBy());
+        entry.setUserRole(gradingQueue.getUserRole());
+        Location location = locationsByJobId.get(cardSuborderJob.getId());
+        entry.setLocationId(location != null ? location.getLocationId() : null);
+        entry.setLocation(gradingQueue.getLocation());
+        entry.setGradingStatus(gradingQueue.getGradingStatus());
+        entry.setOrderStatus(gradingQueue.getOrderStatus());
+        return entry;
+    }
+
+    /**
+     * Current location per job id, the first mapping wins when a job has more than one.
+     */
+    public static Map<Long, Location> locationsByJobId(List<JobLocationMapping> jobLocations) {
+        Map<Long, Location> locations = new HashMap<>();
+        if(jobLocations != null) {
+            jobLocations.forEach(jobLocationMapping -> locations.putIfAbsent(jobLocationMapping.getCardSuborderJob().getId(), jobLocationMapping.getLocation()));
+        }
+        return locations;
+    }
+
+    public static Map<Integer, ServiceLevel> serviceLevelsById(Collection<ServiceLevel> serviceLevels) {
+        Map<Integer, ServiceLevel> serviceLevelsById = new HashMap<>();
+        if(serviceLevels != null) {
+            serviceLevels.forEach(serviceLevel -> serviceLevelsById.putIfAbsent(serviceLevel.getServiceLevelId(), serviceLevel));
+        }
+        return serviceLevelsById;
+    }
+
+    private String populateLocation(Location location) {
+        return location != null ? location.getName() + " - " + location.getLocationNumber() : null;
+    }
+
+    private String populateServiceLevel(Integer serviceLevelId, Map<Integer, ServiceLevel> serviceLevelsById) {
+        ServiceLevel serviceLevel = serviceLevelsById.get(serviceLevelId);
+        return serviceLevel != null ? serviceLevel.getName() : null;
+    }
+}
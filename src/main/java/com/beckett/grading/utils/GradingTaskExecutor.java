@@ -0,0 +1,150 @@
+package com.beckett.grading.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The one pool for background work of the grading flows. Bounded threads and queue, when both are full the
+ * configured policy applies: CALLER_RUNS (default) runs the task on the submitting thread as backpressure, ABORT
+ * rejects it and DISCARD drops it with a warning. Pool, queue and rejection metrics are published as grading.tasks.
+ */
+@Slf4j
+@Component
+public class GradingTaskExecutor {
+
+    public enum RejectionPolicy { CALLER_RUNS, ABORT, DISCARD }
+
+    private static final String NAME = "grading.tasks";
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejections;
+    private final Duration shutdownTimeout;
+    private final TransactionTemplate transactionTemplate;
+
+    public GradingTaskExecutor(@Value("${grading.tasks.core-pool-size:4}") int corePoolSize,
+                               @Value("${grading.tasks.max-pool-size:16}") int maxPoolSize,
+                               @Value("${grading.tasks.queue-capacity:500}") int queueCapacity,
+                               @Value("${grading.tasks.rejection-policy:CALLER_RUNS}") RejectionPolicy rejectionPolicy,
+                               @Value("${grading.tasks.shutdown-timeout:PT30S}") Duration shutdownTimeout,
+                               MeterRegistry meterRegistry,
+                               PlatformTransactionManager transactionManager) {
+        this.shutdownTimeout = shutdownTimeout;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rejections = Counter.builder(NAME + ".rejected")
+                .description("Tasks that did not fit in the grading task pool and queue")
+                .tag("policy", rejectionPolicy.name())
+                .register(meterRegistry);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "grading-task-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectionHandler(rejectionPolicy));
+        new ExecutorServiceMetrics(executor, NAME, Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * Fire and forget. Inside a transaction the task is handed over once it commits, so it sees the committed data
+     * and is skipped on rollback.
+     */
+    public void execute(Runnable task) {
+        Runnable logged = () -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Background grading task failed", e);
+            }
+        };
+        if(TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(logged);
+                }
+            });
+        } else {
+            executor.execute(logged);
+        }
+    }
+
+    public void execute(Runnable... tasks) {
+        Arrays.stream(tasks).forEach(this::execute);
+    }
+
+    /**
+     * Fire and forget in a transaction of its own, entities the task works with should be loaded inside the task
+     * since the submitting session is gone by the time it runs.
+     */
+    public void executeInTransaction(Runnable task) {
+        execute(() -> transactionTemplate.executeWithoutResult(status -> task.run()));
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Fan out the tasks and wait for all of them, the first failure is rethrown.
+     */
+    public void runAll(Duration timeout, Runnable... tasks) {
+        CompletableFuture<?>[] futures = Arrays.stream(tasks)
+                .map(task -> CompletableFuture.runAsync(task, executor))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(futures).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for grading tasks", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Grading tasks did not complete within " + timeout, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Grading tasks did not finish within {}, {} dropped", shutdownTimeout, executor.shutdownNow().size());
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private RejectedExecutionHandler rejectionHandler(RejectionPolicy rejectionPolicy) {
+        RejectedExecutionHandler delegate = switch (rejectionPolicy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD -> (runnable, pool) -> log.warn("Grading task pool is full, task discarded");
+        };
+        return (runnable, pool) -> {
+            rejections.increment();
+            delegate.rejectedExecution(runnable, pool);
+        };
+    }
+}
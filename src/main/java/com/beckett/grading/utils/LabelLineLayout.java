@@ -0,0 +1,84 @@
+package com.beckett.grading.utils;
+
+import com.beckett.grading.config.CacheConfig;
+import com.beckett.grading.dto.LabelLines;
+import com.beckett.order.entity.CardSuborderItem;
+import com.beckett.order.entity.CardSuborderItemPlayer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Lays out the label text of a card: "&lt;set name&gt; #&lt;card number&gt; &lt;player names&gt;" wrapped at word
+ * boundaries into lines of at most 32 columns, up to four lines with whatever is left on the fourth. Layouts are
+ * cached by item master id and the text fields, identical cards are labelled again and again across orders.
+ */
+@Component
+public class LabelLineLayout {
+
+    private static final int LINE_WIDTH = 32;
+    private static final int WRAPPED_LINES = 3;
+
+    private final Cache cache;
+
+    public LabelLineLayout(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.LABEL_LINES));
+    }
+
+    private record Key(String itemMasterId, String cardNumber, String setsName, String playerNames) {}
+
+    public LabelLines lines(CardSuborderItem item) {
+        Key key = new Key(item.getItemMasterId(), item.getCardNumber(), item.getSetsName(), playerNames(item.getPlayers()));
+        return cache.get(key, () -> layout(key.cardNumber(), key.setsName(), key.playerNames()));
+    }
+
+    public static LabelLines lines(String cardNumber, String setsName, List<CardSuborderItemPlayer> players) {
+        return layout(cardNumber, setsName, playerNames(players));
+    }
+
+    static LabelLines layout(String cardNumber, String setsName, String playerNames) {
+        String text = setsName + " #" + cardNumber + " " + playerNames;
+        String[] lines = {"", "", "", ""};
+        int line = 0;
+        int start = 0;
+        int end = text.length();
+        if (end - start > LINE_WIDTH) {
+            while (end - start > LINE_WIDTH && line < WRAPPED_LINES) {
+                int lastSpace = text.lastIndexOf(' ', start + LINE_WIDTH - 1) - start;
+                if (lastSpace <= 0) {
+                    break;
+                }
+                lines[line++] = text.substring(start, start + lastSpace);
+                // what is left of the text, trimmed at both ends
+                start += lastSpace;
+                while (start < end && text.charAt(start) <= ' ') {
+                    start++;
+                }
+                while (end > start && text.charAt(end - 1) <= ' ') {
+                    end--;
+                }
+            }
+        }
+        if (start < end || line == 0) {
+            lines[line] = text.substring(start, end);
+        }
+        return new LabelLines(lines[0].toUpperCase(), lines[1].toUpperCase(), lines[2].toUpperCase(), lines[3].toUpperCase());
+    }
+
+    private static String playerNames(List<CardSuborderItemPlayer> players) {
+        if (players == null || players.isEmpty()) {
+            return "";
+        }
+        StringBuilder names = new StringBuilder();
+        for (CardSuborderItemPlayer player : players) {
+            if (!names.isEmpty()) {
+                names.append(',');
+            }
+            names.append(player.getName());
+        }
+        return names.toString();
+    }
+}
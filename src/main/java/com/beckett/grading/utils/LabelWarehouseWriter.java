@@ -0,0 +1,90 @@
+package com.beckett.grading.utils;
+
+import com.beckett.grading.dto.LabelLines;
+import com.beckett.order.entity.*;
+import com.beckett.order.repository.*;
+import com.beckett.shdsvc.entity.*;
+import com.beckett.shdsvc.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Upserts the label lines of a job's items into the card label warehouse, keyed on item master id. The keys are
+ * locked with transaction scoped advisory locks in a fixed order first, so two jobs finalizing the same cards
+ * update one row instead of racing to insert two. Then one query reads the existing rows and only new or changed
+ * rows are written, batched.
+ */
+@Component
+@RequiredArgsConstructor
+public class LabelWarehouseWriter {
+
+    // advisory lock namespace of the label warehouse keys
+    private static final int LOCK_SPACE = 4711;
+
+    private final CardLabelWarehouseRepository cardLabelWarehouseRepository;
+    private final BulkPersistence bulkPersistence;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public record UpsertCounts(int inserted, int updated, int unchanged) {}
+
+    /**
+     * Lines by item master id, later entries of the same id win.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public UpsertCounts upsert(Map<String, LabelLines> linesByItemMasterId) {
+        if (linesByItemMasterId.isEmpty()) {
+            return new UpsertCounts(0, 0, 0);
+        }
+        String[] keys = new TreeSet<>(linesByItemMasterId.keySet()).toArray(String[]::new);
+        entityManager.createNativeQuery("SELECT count(*) FROM (SELECT pg_advisory_xact_lock(:lockSpace, hashtext(k)) " +
+                        "FROM unnest(cast(:keys AS text[])) AS k) AS locks")
+                .setParameter("lockSpace", LOCK_SPACE)
+                .setParameter("keys", keys)
+                .getSingleResult();
+
+        Map<String, CardLabelWarehouse> existing = new HashMap<>();
+        entityManager.createQuery("select w from CardLabelWarehouse w where w.itemMasterId in :ids", CardLabelWarehouse.class)
+                .setParameter("ids", Arrays.asList(keys))
+                .getResultList()
+                .forEach(row -> existing.putIfAbsent(row.getItemMasterId(), row));
+
+        List<CardLabelWarehouse> changed = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (Map.Entry<String, LabelLines> entry : linesByItemMasterId.entrySet()) {
+            LabelLines lines = entry.getValue();
+            CardLabelWarehouse row = existing.get(entry.getKey());
+            if (row == null) {
+                row = new CardLabelWarehouse();
+                row.setItemMasterId(entry.getKey());
+                inserted++;
+            } else if (Objects.equals(row.getBgsLine1(), lines.line1())
+                    && Objects.equals(row.getBgsLine2(), lines.line2())
+                    && Objects.equals(row.getBgsLine3(), lines.line3())
+                    && Objects.equals(row.getBgsLine4(), lines.line4())) {
+                unchanged++;
+                continue;
+            } else {
+                updated++;
+            }
+            row.setBgsLine1(lines.line1());
+            row.setBgsLine2(lines.line2());
+            row.setBgsLine3(lines.line3());
+            row.setBgsLine4(lines.line4());
+            changed.add(row);
+        }
+        if (!changed.isEmpty()) {
+            bulkPersistence.write(() -> cardLabelWarehouseRepository.saveAll(changed));
+        }
+        return new UpsertCounts(inserted, updated, unchanged);
+    }
+}
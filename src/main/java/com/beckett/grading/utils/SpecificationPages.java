@@ -0,0 +1,77 @@
+package com.beckett.grading.utils;
+
+import jakarta.persistence.EntityGraph;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Subgraph;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Offset pages of a specification without the count query that {@code findAll(Specification, Pageable)} always runs,
+ * for work queue pages read with includeTotal=false. Counted as a repository call of the running grading operation.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpecificationPages {
+
+    private final GradingMetrics gradingMetrics;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The rows of the page, sorted by the pageable's sort, with the given attribute paths ("a", "a.b") fetched in the
+     * same query like an {@code @EntityGraph} on the repository method.
+     */
+    public <T> List<T> content(Class<T> type, Specification<T> specification, Pageable pageable, String... fetchPaths) {
+        gradingMetrics.repositoryCall();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> root = query.from(type);
+        Predicate predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        }
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (fetchPaths.length > 0) {
+            typedQuery.setHint("jakarta.persistence.fetchgraph", fetchGraph(type, fetchPaths));
+        }
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultList();
+    }
+
+    private <T> EntityGraph<T> fetchGraph(Class<T> type, String... paths) {
+        EntityGraph<T> graph = entityManager.createEntityGraph(type);
+        for (String path : paths) {
+            String[] attributes = path.split("\\.");
+            if (attributes.length == 1) {
+                graph.addAttributeNodes(attributes[0]);
+                continue;
+            }
+            Subgraph<?> subgraph = graph.addSubgraph(attributes[0]);
+            for (int i = 1; i < attributes.length - 1; i++) {
+                subgraph = subgraph.addSubgraph(attributes[i]);
+            }
+            subgraph.addAttributeNodes(attributes[attributes.length - 1]);
+        }
+        return graph;
+    }
+}
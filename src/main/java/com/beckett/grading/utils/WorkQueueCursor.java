@@ -0,0 +1,59 @@
+package com.beckett.grading.utils;
+
+import io.micrometer.common.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.Temporal;
+import java.util.Base64;
+
+/**
+ * Position in the work queue ordered by due date and job id, exchanged with the UI as an opaque string.
+ */
+public record WorkQueueCursor(String dueDate, Long cardSuborderJobId) {
+
+    private static final String SEPARATOR = "|";
+
+    public static WorkQueueCursor of(Temporal dueDate, Long cardSuborderJobId) {
+        return new WorkQueueCursor(dueDate.toString(), cardSuborderJobId);
+    }
+
+    /**
+     * @return the cursor or null for a blank value, which starts from the first page
+     */
+    public static WorkQueueCursor decode(String cursor) {
+        if(StringUtils.isBlank(cursor)) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            return new WorkQueueCursor(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid work queue cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((dueDate + SEPARATOR + cardSuborderJobId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Due date converted to the type of the mapped column.
+     */
+    public Object dueDateAs(Class<?> type) {
+        try {
+            if(type == LocalDate.class) {
+                return dueDate.length() > 10 ? LocalDate.parse(dueDate.substring(0, 10)) : LocalDate.parse(dueDate);
+            } else if(type == LocalDateTime.class) {
+                return dueDate.length() > 10 ? LocalDateTime.parse(dueDate) : LocalDate.parse(dueDate).atStartOfDay();
+            }
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid work queue cursor due date: " + dueDate);
+        }
+        throw new IllegalArgumentException("Unsupported due date type: " + type.getName());
+    }
+}
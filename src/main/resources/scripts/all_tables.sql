@@ -56,3 +56,81 @@ ALTER TABLE orders.card_suborder_job ADD grader int8 NULL;
 ALTER TABLE orders.card_suborder_item_grade ADD CONSTRAINT card_suborder_item_grade_fk FOREIGN KEY (grader) REFERENCES users.users(user_id);
 ALTER TABLE orders.card_suborder_job ADD grading_status varchar(255) NULL;
 
+CREATE TABLE GRADING.GRADING_QUEUE (
+    card_suborder_job_id int8 PRIMARY KEY,
+    order_id int8,
+    suborder_id int8,
+    card_suborder_id int8,
+    order_no VARCHAR(50),
+    suborder_no VARCHAR(50),
+    job_no VARCHAR(50),
+    total_no_of_items int4,
+    due_date DATE,
+    service_level_id int8,
+    service_level VARCHAR(255),
+    grader_id int8,
+    grader_email VARCHAR(255),
+    graded_by VARCHAR(255),
+    user_role VARCHAR(255),
+    location_id int8,
+    location VARCHAR(255),
+    grading_status VARCHAR(255),
+    order_status VARCHAR(50),
+    is_queue_eligible BOOLEAN DEFAULT FALSE NOT NULL,
+    refreshed_on TIMESTAMP
+);
+CREATE INDEX IDX_GRADING_QUEUE_GRADER ON GRADING.GRADING_QUEUE (grader_id, is_queue_eligible, due_date, card_suborder_job_id);
+CREATE INDEX IDX_GRADING_QUEUE_ELIGIBLE ON GRADING.GRADING_QUEUE (is_queue_eligible, due_date, card_suborder_job_id);
+CREATE INDEX IDX_GRADING_QUEUE_ORDER ON GRADING.GRADING_QUEUE (order_id);
+
+CREATE TABLE GRADING.GRADING_OUTBOX (
+    grading_outbox_id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    attempts int4 DEFAULT 0 NOT NULL,
+    next_attempt_on TIMESTAMP NOT NULL,
+    claimed_on TIMESTAMP,
+    completed_on TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_on TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_GRADING_OUTBOX_STATUS ON GRADING.GRADING_OUTBOX (status, next_attempt_on, grading_outbox_id);
+ALTER TABLE GRADING.GRADING_OUTBOX ADD dedup_key VARCHAR(255) NULL;
+CREATE INDEX IDX_GRADING_OUTBOX_DEDUP ON GRADING.GRADING_OUTBOX (dedup_key, created_on);
+
+CREATE TABLE GRADING.CRM_DEAL_SYNC (
+    deal_id VARCHAR(255) PRIMARY KEY,
+    deal_stage VARCHAR(50) NOT NULL,
+    synced_on TIMESTAMP NOT NULL
+);
+
+CREATE TABLE GRADING.GRADING_ROLLUP (
+    scope VARCHAR(20) NOT NULL,
+    scope_id int8 NOT NULL,
+    total int4 NOT NULL,
+    graded int4 DEFAULT 0 NOT NULL,
+    completed_on TIMESTAMP,
+    PRIMARY KEY (scope, scope_id)
+);
+
+CREATE TABLE GRADING.GRADING_ROLLUP_MEMBER (
+    scope VARCHAR(20) NOT NULL,
+    member_id int8 NOT NULL,
+    PRIMARY KEY (scope, member_id)
+);
+
+CREATE TABLE GRADING.GRADING_QUEUE_EVENT (
+    grading_queue_event_id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(30) NOT NULL,
+    card_suborder_job_id int8 NOT NULL,
+    job_no VARCHAR(50),
+    grader_id int8,
+    previous_grader_id int8,
+    location_id int8,
+    previous_location_id int8,
+    service_level_id int8,
+    grading_status VARCHAR(255),
+    created_on TIMESTAMP NOT NULL
+);
+CREATE INDEX IDX_GRADING_QUEUE_EVENT_CREATED ON GRADING.GRADING_QUEUE_EVENT (created_on);
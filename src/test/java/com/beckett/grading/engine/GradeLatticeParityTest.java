@@ -0,0 +1,108 @@
+package com.beckett.grading.engine;
+
+import com.beckett.grading.dto.GradeResult;
+import com.beckett.grading.support.ReferenceData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static com.beckett.grading.engine.GradeLattice.STEPS;
+import static com.beckett.grading.engine.GradeLattice.toGrade;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The lattice and the fixed point path must give the same {@link GradeResult}, grade and description, as the step by
+ * step calculation against the repositories, for every half step combination of the four sub grades.
+ */
+class GradeLatticeParityTest {
+
+    private RepositoryGradeReferenceLookup repositoryLookup;
+    private GradeReferenceSnapshot snapshot;
+    private GradeCalculator gradeCalculator;
+    private FixedPointGradeCalculator fixedPointGradeCalculator;
+    private GradeLattice gradeLattice;
+
+    @BeforeEach
+    void setUp() {
+        ReferenceData tables = new ReferenceData();
+        repositoryLookup = new RepositoryGradeReferenceLookup(tables.gradeFormulaRepository,
+                tables.gradeRoundNumberRepository, tables.takeOffReferenceRepository, tables.gradeFormulaMapper);
+        GradeReferenceIndex index = new GradeReferenceIndex(tables.gradeFormulaRepository,
+                tables.gradeRoundNumberRepository, tables.takeOffReferenceRepository, tables.gradeFormulaMapper,
+                repositoryLookup, mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(index, "enabled", true);
+        snapshot = index.reload().orElseThrow();
+
+        fixedPointGradeCalculator = new FixedPointGradeCalculator(tables.gradingDescriptionMapper);
+        fixedPointGradeCalculator.probe();
+        // fixed point stays off, the lattice is built with the step by step calculation
+        gradeCalculator = new GradeCalculator(index, fixedPointGradeCalculator, tables.gradingDescriptionMapper);
+        gradeLattice = new GradeLattice(gradeCalculator);
+        ReflectionTestUtils.setField(gradeLattice, "enabled", true);
+        gradeLattice.rebuild(snapshot);
+    }
+
+    @Test
+    void latticeAndFixedPointMatchTheRepositoryPathForAllSubGrades() {
+        int calculated = 0;
+        int fixedPointAnswered = 0;
+        for (int c = 0; c < STEPS; c++) {
+            for (int co = 0; co < STEPS; co++) {
+                for (int e = 0; e < STEPS; e++) {
+                    for (int s = 0; s < STEPS; s++) {
+                        String centering = toGrade(c);
+                        String corners = toGrade(co);
+                        String edges = toGrade(e);
+                        String surface = toGrade(s);
+                        String input = String.join("/", centering, corners, edges, surface);
+
+                        GradeResult expected = repositoryPath(centering, corners, edges, surface);
+                        Optional<GradeResult> lattice = gradeLattice.lookup(centering, corners, edges, surface);
+                        GradeResult fixedPoint = fixedPointPath(centering, corners, edges, surface);
+
+                        if (expected == null) {
+                            // the request goes through the regular path and gets its error
+                            assertThat(lattice).as("lattice %s", input).isEmpty();
+                            assertThat(fixedPoint).as("fixed point %s", input).isNull();
+                            continue;
+                        }
+                        calculated++;
+                        // every grade has a description, so the comparisons below cover it too
+                        assertThat(expected).as("repository %s", input).hasNoNullFieldsOrProperties();
+                        assertThat(lattice).as("lattice %s", input).isPresent();
+                        assertThat(lattice.get()).as("lattice %s", input)
+                                .usingRecursiveComparison().isEqualTo(expected);
+                        if (fixedPoint != null) {
+                            fixedPointAnswered++;
+                            assertThat(fixedPoint).as("fixed point %s", input)
+                                    .usingRecursiveComparison().isEqualTo(expected);
+                        }
+                    }
+                }
+            }
+        }
+        assertThat(calculated).isPositive();
+        // null means the fixed point path defers to the step by step one, it must still answer most inputs
+        assertThat(fixedPointAnswered).isGreaterThan(calculated / 2);
+    }
+
+    private GradeResult repositoryPath(String centering, String corners, String edges, String surface) {
+        try {
+            return gradeCalculator.calculate(centering, corners, edges, surface, repositoryLookup);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private GradeResult fixedPointPath(String centering, String corners, String edges, String surface) {
+        try {
+            return fixedPointGradeCalculator.calculate(centering, corners, edges, surface, snapshot);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.beckett.grading.outbox;
+
+import com.beckett.grading.entity.CrmDealSync;
+import com.beckett.grading.entity.GradingOutboxEvent;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.shdsvc.enums.DealStageEnum;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The deal updates of one claim against a stubbed CRM: one call per deal with the furthest stage, none when the CRM
+ * already has it.
+ */
+class CrmDealUpdateCoalescerTest extends PostgresIntegrationTest {
+
+    private static final int UPDATES = 5;
+
+    private static final MockWebServer CRM = new MockWebServer();
+
+    static {
+        CRM.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse().setHeader("Content-Type", "application/json").setBody("{}");
+            }
+        });
+        try {
+            CRM.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void crmUrl(DynamicPropertyRegistry registry) {
+        registry.add("crm.api.url", () -> CRM.url("/").toString().replaceAll("/$", ""));
+    }
+
+    @AfterAll
+    static void stopCrm() throws IOException {
+        CRM.shutdown();
+    }
+
+    @Autowired
+    private CrmDealUpdateCoalescer crmDealUpdateCoalescer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final DealStageEnum earlier = Stream.of(DealStageEnum.L1_GRADED, DealStageEnum.GRADED)
+            .min(Comparator.comparingInt(Enum::ordinal)).orElseThrow();
+    private final DealStageEnum furthest = Stream.of(DealStageEnum.L1_GRADED, DealStageEnum.GRADED)
+            .max(Comparator.comparingInt(Enum::ordinal)).orElseThrow();
+
+    private String dealId;
+    private int requestsBefore;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        fixture.dealStage(earlier);
+        fixture.dealStage(furthest);
+        dealId = "deal-" + UUID.randomUUID();
+        // drop the requests of earlier tests so takeRequest returns this test's call
+        while (CRM.takeRequest(0, TimeUnit.MILLISECONDS) != null) {
+            // skip
+        }
+        requestsBefore = CRM.getRequestCount();
+    }
+
+    @Test
+    void updatesOfOneDealWithinTheWindowMakeOneCrmCall() throws InterruptedException {
+        LocalDateTime claimedOn = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<GradingOutboxEvent> events = new ArrayList<>();
+        for (int i = 0; i < UPDATES; i++) {
+            events.add(claimed(i == UPDATES / 2 ? furthest : earlier, claimedOn));
+        }
+
+        assertThat(crmDealUpdateCoalescer.flush(events)).isEmpty();
+
+        assertThat(CRM.getRequestCount() - requestsBefore).isEqualTo(1);
+        RecordedRequest request = CRM.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(request).isNotNull();
+        assertThat(request.getMethod()).isEqualTo("PUT");
+        assertThat(request.getRequestUrl().queryParameter("dealId")).isEqualTo(dealId);
+        assertThat(request.getBody().readUtf8()).contains(fixture.dealStage(furthest).getDealStageCode());
+        assertThat(fixture.find(CrmDealSync.class, dealId).getDealStage()).isEqualTo(furthest);
+        assertDone(events);
+    }
+
+    @Test
+    void updateToAStageTheCrmAlreadyHasIsSkipped() {
+        CrmDealSync crmDealSync = new CrmDealSync();
+        crmDealSync.setDealId(dealId);
+        crmDealSync.setDealStage(furthest);
+        crmDealSync.setSyncedOn(LocalDateTime.now());
+        fixture.save(crmDealSync);
+        LocalDateTime claimedOn = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        List<GradingOutboxEvent> events = List.of(claimed(earlier, claimedOn), claimed(furthest, claimedOn));
+
+        assertThat(crmDealUpdateCoalescer.flush(events)).isEmpty();
+
+        assertThat(CRM.getRequestCount() - requestsBefore).isZero();
+        assertThat(fixture.find(CrmDealSync.class, dealId).getDealStage()).isEqualTo(furthest);
+        assertDone(events);
+    }
+
+    /**
+     * A deal update of this test's deal as the dispatcher hands it over, claimed and in progress.
+     */
+    private GradingOutboxEvent claimed(DealStageEnum stage, LocalDateTime claimedOn) {
+        GradingOutboxEvent event = new GradingOutboxEvent();
+        event.setEventType(OutboxEventType.CRM_DEAL_UPDATE.name());
+        try {
+            event.setPayload(objectMapper.writeValueAsString(new OutboxPayloads.DealStage(dealId, stage)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        event.setStatus(GradingOutboxEvent.Status.IN_PROGRESS);
+        event.setNextAttemptOn(claimedOn);
+        event.setClaimedOn(claimedOn);
+        event.setCreatedOn(claimedOn);
+        return fixture.save(event);
+    }
+
+    private void assertDone(List<GradingOutboxEvent> events) {
+        assertThat(events).allSatisfy(event -> assertThat(fixture.find(GradingOutboxEvent.class, event.getId()).getStatus())
+                .isEqualTo(GradingOutboxEvent.Status.DONE));
+    }
+}
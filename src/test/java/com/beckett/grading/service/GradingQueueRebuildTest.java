@@ -0,0 +1,50 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.support.GradingFixture;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.user.entity.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "grading.queue.read-model.enabled=true")
+class GradingQueueRebuildTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private GradingQueueProjectionService gradingQueueProjectionService;
+
+    @Test
+    void rebuildProjectsEligibleJobs() {
+        Users grader = fixture.grader(true);
+        GradingFixture.Job job = fixture.job(fixture.serviceLevel("Standard", true), grader, 1);
+
+        assertThat(gradingQueueProjectionService.rebuild()).isPositive();
+
+        GradingQueueEntry entry = fixture.find(GradingQueueEntry.class, job.id());
+        assertThat(entry.getQueueEligible()).isTrue();
+        assertThat(entry.getGraderId()).isEqualTo(grader.getUserId());
+    }
+
+    @Test
+    void rebuildKeepsARowRefreshedAfterThePageWasRead() {
+        Users grader = fixture.grader(true);
+        GradingFixture.Job job = fixture.job(fixture.serviceLevel("Standard", true), grader, 1);
+        gradingQueueProjectionService.rebuild();
+        // stands in for a refresh by a write path that committed while the rebuild read its page
+        GradingQueueEntry refreshed = fixture.find(GradingQueueEntry.class, job.id());
+        refreshed.setGraderEmail("refreshed-" + grader.getEmail());
+        refreshed.setRefreshedOn(LocalDateTime.now().plusHours(1));
+        fixture.save(refreshed);
+
+        gradingQueueProjectionService.rebuild();
+
+        GradingQueueEntry entry = fixture.find(GradingQueueEntry.class, job.id());
+        assertThat(entry.getGraderEmail()).isEqualTo("refreshed-" + grader.getEmail());
+        assertThat(entry.getQueueEligible()).isTrue();
+    }
+}
@@ -0,0 +1,107 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.support.GradingFixture;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.grading.support.StatementCounter;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.user.entity.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statement budgets of the grading operations. A call is counted from outside its transaction, so the
+ * statements Hibernate only flushes at commit count as well. An N+1 regression shows up as a budget failure listing
+ * the statements by shape.
+ */
+class GradingStatementBudgetTest extends PostgresIntegrationTest {
+
+    private static final int SUBMIT = 10;
+    private static final int FINALIZE = 20;
+    static final int WORK_QUEUE_PAGE = 6;
+
+    private static final int ITEMS = 50;
+
+    // the bulk write flushes grades, items and lookups in batches of grading.jpa.bulk-batch-size (100)
+    private static final int BULK_ITEMS = 500;
+    private static final int BULK_BATCHES_PER_TABLE = 5;
+    private static final int FINALIZE_BULK = FINALIZE + 3 * BULK_BATCHES_PER_TABLE;
+
+    @Autowired
+    private GradingService gradingService;
+
+    @Test
+    void submitStaysWithinBudget() {
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        Users grader = fixture.grader(true);
+        GradingFixture.Job job = fixture.job(standard, grader, ITEMS);
+
+        StatementCounter.Recording recording = statementsOf(() ->
+                gradingService.submitGrades(fixture.login(grader), fixture.grades(job, 8.5)));
+
+        assertWithinBudget("submit", SUBMIT, recording);
+        assertThat(fixture.find(CardSuborderJob.class, job.id()).getGradingStatus())
+                .isEqualTo(CardSuborderJob.StatusEnum.READY_FOR_SENIOR_REVIEW);
+    }
+
+    @Test
+    void finalizeStaysWithinBudgetIncludingTheQcFlagWrittenAtCommit() {
+        // the express-or-priority-service QC rule holds, so the QC flag is saved after the bulk flush of the grades
+        ServiceLevel express = fixture.serviceLevel("Express", true);
+        Users grader = fixture.grader(true);
+        GradingFixture.Job job = fixture.job(express, grader, ITEMS);
+
+        StatementCounter.Recording recording = statementsOf(() ->
+                gradingService.finalizeGrades(fixture.login(grader), fixture.grades(job, 8.5)));
+
+        assertWithinBudget("finalize", FINALIZE, recording);
+        CardSuborderJob finalized = fixture.find(CardSuborderJob.class, job.id());
+        assertThat(finalized.getGradingStatus()).isEqualTo(CardSuborderJob.StatusEnum.GRADED);
+        assertThat(finalized.getIsQcApplicable()).isTrue();
+    }
+
+    @Test
+    void finalizeOfFiveHundredItemsWritesInBatches() {
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        Users grader = fixture.grader(true);
+        GradingFixture.Job job = fixture.job(standard, grader, BULK_ITEMS);
+
+        StatementCounter.Recording recording = statementsOf(() ->
+                gradingService.finalizeGrades(fixture.login(grader), fixture.grades(job, 8.5)));
+
+        assertWithinBudget("finalize of " + BULK_ITEMS + " items", FINALIZE_BULK, recording);
+        assertThat(fixture.find(CardSuborderJob.class, job.id()).getGradingStatus())
+                .isEqualTo(CardSuborderJob.StatusEnum.GRADED);
+    }
+
+    @Test
+    void myWorkQueuePageStaysWithinBudget() {
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        Users grader = fixture.grader(true);
+        for (int i = 0; i < 30; i++) {
+            fixture.job(standard, grader, 1);
+        }
+
+        StatementCounter.Recording recording = statementsOf(() -> assertThat(gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, 25), null, true).getQueues()).hasSize(25));
+
+        assertWithinBudget("my-work-queues", WORK_QUEUE_PAGE, recording);
+    }
+
+    @Test
+    void totalWorkQueuePageStaysWithinBudget() {
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        Users grader = fixture.grader(true);
+        for (int i = 0; i < 30; i++) {
+            fixture.job(standard, grader, 1);
+        }
+
+        StatementCounter.Recording recording = statementsOf(() -> assertThat(gradingService.getTotalGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, 25), null, true).getQueues()).hasSize(25));
+
+        assertWithinBudget("total-work-queues", WORK_QUEUE_PAGE, recording);
+    }
+}
@@ -0,0 +1,54 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.request.AssignGradersRequest;
+import com.beckett.grading.response.JobAssignmentOutcome;
+import com.beckett.grading.support.Fixtures;
+import com.beckett.grading.support.GradingFixture;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.user.entity.Users;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class JobAssignmentTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private GradingService gradingService;
+
+    @Test
+    void jobListedUnderTwoGradersIsReportedAsDuplicateAndNotAssigned() {
+        Users previous = fixture.grader(true);
+        Users first = fixture.grader(true);
+        Users second = fixture.grader(true);
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        GradingFixture.Job contested = fixture.job(standard, previous, 1);
+        GradingFixture.Job single = fixture.job(standard, previous, 1);
+        String contestedNo = contested.job().getJobNo();
+        String singleNo = single.job().getJobNo();
+
+        List<JobAssignmentOutcome> outcomes = gradingService.assignGraders(List.of(
+                request(first, contestedNo, singleNo),
+                request(second, contestedNo)));
+
+        assertThat(outcomes).extracting(JobAssignmentOutcome::getJobNo, JobAssignmentOutcome::getGraderId, JobAssignmentOutcome::getOutcome)
+                .containsExactly(
+                        tuple(contestedNo, first.getUserId(), JobAssignmentOutcome.Outcome.DUPLICATE),
+                        tuple(singleNo, first.getUserId(), JobAssignmentOutcome.Outcome.ASSIGNED),
+                        tuple(contestedNo, second.getUserId(), JobAssignmentOutcome.Outcome.DUPLICATE));
+        assertThat(fixture.find(CardSuborderJob.class, contested.id()).getGrader().getUserId()).isEqualTo(previous.getUserId());
+        assertThat(fixture.find(CardSuborderJob.class, single.id()).getGrader().getUserId()).isEqualTo(first.getUserId());
+    }
+
+    private static AssignGradersRequest request(Users grader, String... jobNos) {
+        AssignGradersRequest request = Fixtures.newInstance(AssignGradersRequest.class);
+        Fixtures.set(request, "graderId", grader.getUserId());
+        Fixtures.set(request, "jobNos", List.of(jobNos));
+        return request;
+    }
+}
@@ -0,0 +1,57 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.user.entity.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import static com.beckett.grading.service.WorkQueueStatementCountTest.assertFixedPerPage;
+import static com.beckett.grading.service.WorkQueueStatementCountTest.assertSkipsTheCount;
+import static com.beckett.grading.service.WorkQueueStatementCountTest.fromTheStart;
+
+/**
+ * The work queue pages served from the grading queue read model, a page is one query plus the count when asked for.
+ */
+@TestPropertySource(properties = "grading.queue.read-model.enabled=true")
+class ReadModelWorkQueueStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int ENTRIES = 60;
+
+    @Autowired
+    private GradingService gradingService;
+
+    private Users grader;
+
+    @BeforeEach
+    void createEntries() {
+        grader = fixture.grader(true);
+        fixture.queueEntries(grader, ENTRIES);
+    }
+
+    @Test
+    void myWorkQueueOffsetPageHasAFixedStatementCount() {
+        assertFixedPerPage("my-work-queues read model", size -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), null, true));
+    }
+
+    @Test
+    void myWorkQueueKeysetPageHasAFixedStatementCount() {
+        assertFixedPerPage("my-work-queues read model keyset", size -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), fromTheStart(), true));
+    }
+
+    @Test
+    void totalWorkQueueOffsetPageHasAFixedStatementCount() {
+        assertFixedPerPage("total-work-queues read model", size -> gradingService.getTotalGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), null, true));
+    }
+
+    @Test
+    void myWorkQueueOffsetPageWithoutTotalSkipsTheCount() {
+        assertSkipsTheCount("my-work-queues read model without total", includeTotal -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(1, 10), null, includeTotal));
+    }
+}
@@ -0,0 +1,166 @@
+package com.beckett.grading.service;
+
+import com.beckett.grading.repository.WorkQueueJobRepository;
+import com.beckett.grading.repository.specification.WorkQueueKeysetSpecification;
+import com.beckett.grading.response.GradingWorkQueuesResponse;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.grading.support.StatementCounter;
+import com.beckett.grading.utils.WorkQueueCursor;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.user.entity.Users;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A work queue page is read with a fixed number of statements, whatever its size: the jobs come with their sub order,
+ * order and grader, the locations in one query and the service levels from the reference data cache.
+ */
+class WorkQueueStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int JOBS = 60;
+    private static final int SMALL_PAGE = 10;
+    private static final int LARGE_PAGE = 50;
+
+    // page query plus count query
+    private static final int REPOSITORY_PAGE = 2;
+
+    @Autowired
+    private WorkQueueJobRepository workQueueJobRepository;
+
+    @Autowired
+    private GradingService gradingService;
+
+    private Users grader;
+
+    @BeforeEach
+    void createJobs() {
+        grader = fixture.grader(true);
+        ServiceLevel standard = fixture.serviceLevel("Standard", true);
+        for (int i = 0; i < JOBS; i++) {
+            fixture.job(standard, grader, 1);
+        }
+    }
+
+    @Test
+    void repositoryPageLoadsTheJobGraphWithThePageQuery() {
+        Specification<CardSuborderJob> assignedToGrader =
+                (root, query, cb) -> cb.equal(root.get("grader").get("userId"), grader.getUserId());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        IntFunction<StatementCounter.Recording> page = size -> statementsOf(() -> transactionTemplate.executeWithoutResult(status -> {
+            Page<CardSuborderJob> jobs = workQueueJobRepository.findAll(assignedToGrader, PageRequest.of(0, size));
+            assertThat(jobs.getContent()).hasSize(size).allSatisfy(job -> {
+                assertThat(job.getCardSuborder().getOrder().getOrderNo()).isNotNull();
+                assertThat(job.getGrader().getEmail()).isEqualTo(grader.getEmail());
+            });
+        }));
+
+        assertThat(page.apply(SMALL_PAGE).count()).isEqualTo(REPOSITORY_PAGE);
+        assertThat(page.apply(LARGE_PAGE).count()).isEqualTo(REPOSITORY_PAGE);
+    }
+
+    @Test
+    void keysetQueryLoadsTheJobGraphWithThePageQuery() {
+        Specification<CardSuborderJob> assignedToGrader =
+                (root, query, cb) -> cb.equal(root.get("grader").get("userId"), grader.getUserId());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        IntFunction<StatementCounter.Recording> page = size -> statementsOf(() -> transactionTemplate.executeWithoutResult(status -> {
+            List<CardSuborderJob> jobs = workQueueJobRepository.findBy(assignedToGrader, query -> query
+                    .sortBy(WorkQueueKeysetSpecification.JOB_ORDER).project(WorkQueueJobRepository.QUEUE_ROW_GRAPH)
+                    .limit(size).all());
+            assertThat(jobs).hasSize(size).allSatisfy(job -> {
+                assertThat(job.getCardSuborder().getOrder().getOrderNo()).isNotNull();
+                assertThat(job.getGrader().getEmail()).isEqualTo(grader.getEmail());
+            });
+        }));
+
+        assertThat(page.apply(SMALL_PAGE).count()).isEqualTo(1);
+        assertThat(page.apply(LARGE_PAGE).count()).isEqualTo(1);
+    }
+
+    @Test
+    void myWorkQueueOffsetPageHasAFixedStatementCount() {
+        assertFixedPerPage("my-work-queues", size -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), null, true));
+    }
+
+    @Test
+    void myWorkQueueKeysetPageHasAFixedStatementCount() {
+        assertFixedPerPage("my-work-queues keyset", size -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), fromTheStart(), true));
+    }
+
+    @Test
+    void totalWorkQueueOffsetPageHasAFixedStatementCount() {
+        assertFixedPerPage("total-work-queues", size -> gradingService.getTotalGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), null, true));
+    }
+
+    @Test
+    void totalWorkQueueKeysetPageHasAFixedStatementCount() {
+        assertFixedPerPage("total-work-queues keyset", size -> gradingService.getTotalGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(0, size), fromTheStart(), true));
+    }
+
+    @Test
+    void myWorkQueueOffsetPageWithoutTotalSkipsTheCount() {
+        assertSkipsTheCount("my-work-queues without total", includeTotal -> gradingService.getMyGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(1, SMALL_PAGE), null, includeTotal));
+    }
+
+    @Test
+    void totalWorkQueueOffsetPageWithoutTotalSkipsTheCount() {
+        assertSkipsTheCount("total-work-queues without total", includeTotal -> gradingService.getTotalGradingWorkQueues(
+                grader.getUserId(), null, null, null, PageRequest.of(1, SMALL_PAGE), null, includeTotal));
+    }
+
+    static String fromTheStart() {
+        return WorkQueueCursor.of(LocalDate.of(2000, 1, 1), 0L).encode();
+    }
+
+    /**
+     * Reads a small and a large page after a warm up read that fills the caches, both must take the same number of
+     * statements and stay within the work queue page budget.
+     */
+    static void assertFixedPerPage(String operation, IntFunction<GradingWorkQueuesResponse> page) {
+        page.apply(SMALL_PAGE);
+        StatementCounter.Recording small = statementsOf(() -> assertThat(page.apply(SMALL_PAGE).getQueues()).hasSize(SMALL_PAGE));
+        StatementCounter.Recording large = statementsOf(() -> assertThat(page.apply(LARGE_PAGE).getQueues()).hasSize(LARGE_PAGE));
+
+        assertWithinBudget(operation, GradingStatementBudgetTest.WORK_QUEUE_PAGE, large);
+        assertThat(large.count()).as("%s statements for %d vs %d rows", operation, LARGE_PAGE, SMALL_PAGE)
+                .isEqualTo(small.count());
+    }
+
+    /**
+     * The same offset page read with and without the total: the rows are the same, one statement less and no totals
+     * without it.
+     */
+    static void assertSkipsTheCount(String operation, Function<Boolean, GradingWorkQueuesResponse> page) {
+        page.apply(true);
+        GradingWorkQueuesResponse[] responses = new GradingWorkQueuesResponse[2];
+        StatementCounter.Recording counted = statementsOf(() -> responses[0] = page.apply(true));
+        StatementCounter.Recording uncounted = statementsOf(() -> responses[1] = page.apply(false));
+
+        assertThat(responses[1].getQueues()).as(operation).hasSize(SMALL_PAGE)
+                .usingRecursiveFieldByFieldElementComparator().containsExactlyInAnyOrderElementsOf(responses[0].getQueues());
+        assertThat(responses[1].getPage().getPageStart()).isEqualTo(responses[0].getPage().getPageStart());
+        assertThat(responses[0].getPage().getTotalRecords()).isPositive();
+        assertThat(responses[1].getPage().getTotalRecords()).as(operation).isIn(null, 0L);
+        assertThat(uncounted.count()).as("%s statements", operation).isEqualTo(counted.count() - 1);
+    }
+}
@@ -0,0 +1,199 @@
+package com.beckett.grading.support;
+
+import com.beckett.common.entity.UserInfoDetails;
+import com.beckett.grading.entity.GradingQueueEntry;
+import com.beckett.grading.request.ItemGrades;
+import com.beckett.order.constant.OrderStatus;
+import com.beckett.order.entity.CardSuborder;
+import com.beckett.order.entity.CardSuborderItem;
+import com.beckett.order.entity.CardSuborderJob;
+import com.beckett.order.entity.Order;
+import com.beckett.shdsvc.entity.DealStage;
+import com.beckett.shdsvc.entity.ServiceLevel;
+import com.beckett.shdsvc.enums.DealStageEnum;
+import com.beckett.user.entity.Users;
+import jakarta.persistence.EntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Persists the order / sub order / job / item graph the grading flows read, each call in its own committed
+ * transaction so the calls under test start from a clean persistence context. Numbers are unique per run, tests
+ * share the database and only see their own rows through the grader they create.
+ */
+public class GradingFixture {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger(1000);
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public GradingFixture(EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * A job with its items, the items in load order.
+     */
+    public record Job(CardSuborderJob job, List<Long> itemIds) {
+        public Long id() {
+            return job.getId();
+        }
+    }
+
+    public <T> T save(T entity) {
+        return transactionTemplate.execute(status -> entityManager.merge(entity));
+    }
+
+    public <T> T find(Class<T> type, Object id) {
+        return transactionTemplate.execute(status -> entityManager.find(type, id));
+    }
+
+    public ServiceLevel serviceLevel(String name, boolean subGrade) {
+        ServiceLevel serviceLevel = Fixtures.newInstance(ServiceLevel.class);
+        Fixtures.set(serviceLevel, "serviceLevelId", SEQUENCE.incrementAndGet());
+        Fixtures.set(serviceLevel, "name", name);
+        Fixtures.set(serviceLevel, "subGrade", subGrade);
+        return save(serviceLevel);
+    }
+
+    /**
+     * A grader without grading job roles, which the grading flows treat as senior.
+     */
+    public Users grader(boolean active) {
+        Users user = Fixtures.newInstance(Users.class);
+        Fixtures.set(user, "email", "grader" + SEQUENCE.incrementAndGet() + "@beckett.com");
+        Fixtures.set(user, "active", active);
+        Fixtures.set(user, "deleted", Boolean.FALSE);
+        return save(user);
+    }
+
+    public UserInfoDetails login(Users grader) {
+        UserInfoDetails userInfoDetails = mock(UserInfoDetails.class);
+        when(userInfoDetails.getUserId()).thenReturn(grader.getUserId());
+        when(userInfoDetails.getUsername()).thenReturn(grader.getEmail());
+        return userInfoDetails;
+    }
+
+    /**
+     * A verified card sub order with one job of the given number of items, assigned to the grader. Finalize reads
+     * the card sub order back as a Suborder by the same id.
+     */
+    public Job job(ServiceLevel serviceLevel, Users grader, int items) {
+        return transactionTemplate.execute(status -> {
+            int number = SEQUENCE.incrementAndGet();
+            Order order = Fixtures.newInstance(Order.class);
+            Fixtures.set(order, "orderNo", "ORD-" + number);
+            Fixtures.set(order, "orderStatus", OrderStatus.GRADING);
+            entityManager.persist(order);
+
+            CardSuborder cardSuborder = Fixtures.newInstance(CardSuborder.class);
+            Fixtures.set(cardSuborder, "suborderNo", "SUB-" + number);
+            Fixtures.set(cardSuborder, "serviceLevelId", serviceLevel.getServiceLevelId());
+            Fixtures.set(cardSuborder, "dueDate", LocalDateTime.now().plusDays(number % 30));
+            Fixtures.set(cardSuborder, "suborderStatus", "VERIFIED");
+            Fixtures.set(cardSuborder, "order", order);
+            entityManager.persist(cardSuborder);
+            Fixtures.set(cardSuborder, "suborderId", cardSuborder.getCardSuborderId());
+
+            CardSuborderJob job = Fixtures.newInstance(CardSuborderJob.class);
+            Fixtures.set(job, "jobNo", "JOB-" + number);
+            Fixtures.set(job, "itemCount", items);
+            Fixtures.set(job, "cardSuborder", cardSuborder);
+            Fixtures.set(job, "grader", grader == null ? null : entityManager.getReference(Users.class, grader.getUserId()));
+            Fixtures.set(job, "gradingStatus", CardSuborderJob.StatusEnum.GRADING);
+            entityManager.persist(job);
+
+            List<Long> itemIds = new ArrayList<>(items);
+            for (int i = 1; i <= items; i++) {
+                CardSuborderItem item = Fixtures.newInstance(CardSuborderItem.class);
+                Fixtures.set(item, "itemName", "Card " + number + "-" + i);
+                Fixtures.set(item, "cardSuborderJob", job);
+                entityManager.persist(item);
+                itemIds.add(item.getCardSuborderItemId());
+            }
+            entityManager.flush();
+            return new Job(job, itemIds);
+        });
+    }
+
+    /**
+     * Sub grades for every item of the job, final grade below 10 so finalize doesn't need a prior submit.
+     */
+    public List<ItemGrades> grades(Job job, double finalGrade) {
+        List<ItemGrades> itemGrades = new ArrayList<>(job.itemIds().size());
+        for (Long itemId : job.itemIds()) {
+            ItemGrades grade = Fixtures.newInstance(ItemGrades.class);
+            Fixtures.set(grade, "cardSuborderItemId", itemId);
+            Fixtures.set(grade, "centering", 8.5);
+            Fixtures.set(grade, "corners", 9.0);
+            Fixtures.set(grade, "edges", 8.0);
+            Fixtures.set(grade, "surface", 9.5);
+            Fixtures.set(grade, "minGrade", 8.0);
+            Fixtures.set(grade, "finalGrade", finalGrade);
+            Fixtures.setNew(grade, "tagImageAndGraderNotes");
+            itemGrades.add(grade);
+        }
+        return itemGrades;
+    }
+
+    /**
+     * Work queue read model rows assigned to the grader, ids far above the ones the database generates.
+     */
+    public List<GradingQueueEntry> queueEntries(Users grader, int count) {
+        return transactionTemplate.execute(status -> {
+            List<GradingQueueEntry> entries = new ArrayList<>(count);
+            long firstId = 1_000_000_000L + SEQUENCE.addAndGet(count) * 1_000L;
+            for (int i = 0; i < count; i++) {
+                GradingQueueEntry entry = new GradingQueueEntry();
+                entry.setCardSubOrderJobId(firstId + i);
+                entry.setOrderId(firstId + i);
+                entry.setSubOrderId(firstId + i);
+                entry.setCardSubOrderId(firstId + i);
+                entry.setOrderNo("ORD-" + (firstId + i));
+                entry.setSubOrderNo("SUB-" + (firstId + i));
+                entry.setJobNo("JOB-" + (firstId + i));
+                entry.setTotalNoOfItems(10);
+                entry.setDueDate(LocalDate.now().plusDays(i % 30));
+                entry.setServiceLevelId(1L);
+                entry.setServiceLevel("Standard");
+                entry.setGraderId(grader.getUserId());
+                entry.setGraderEmail(grader.getEmail());
+                entry.setGradingStatus(CardSuborderJob.StatusEnum.GRADING.name());
+                entry.setOrderStatus(OrderStatus.GRADING.value());
+                entry.setQueueEligible(Boolean.TRUE);
+                entry.setRefreshedOn(LocalDateTime.now());
+                entityManager.persist(entry);
+                entries.add(entry);
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * The deal stage row of the stage, created on first use since stage names are looked up as unique.
+     */
+    public DealStage dealStage(DealStageEnum stage) {
+        List<DealStage> existing = transactionTemplate.execute(status -> entityManager
+                .createQuery("select d from DealStage d where d.dealStageName = :name", DealStage.class)
+                .setParameter("name", stage.getStageName())
+                .getResultList());
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        DealStage dealStage = Fixtures.newInstance(DealStage.class);
+        Fixtures.set(dealStage, "dealStageName", stage.getStageName());
+        Fixtures.set(dealStage, "dealStageCode", "code-" + stage.name().toLowerCase());
+        return save(dealStage);
+    }
+}
@@ -0,0 +1,68 @@
+package com.beckett.grading.support;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the service against PostgreSQL, the repositories use native PostgreSQL queries (advisory locks, SKIP LOCKED,
+ * ON CONFLICT). Tests are not transactional: the calls under test open and commit their own transactions, so the
+ * statements flushed at commit are part of what {@link #statementsOf(Runnable)} counts.
+ */
+@SpringBootTest(properties = {"aws.secret.path=grading/it", "spring.cloud.aws.secretsmanager.enabled=false"})
+@ActiveProfiles("it")
+public abstract class PostgresIntegrationTest {
+
+    // shapes listed when a statement count is over its budget
+    private static final int MAX_SHAPES = 20;
+
+    // one container for all test classes, the cached application contexts keep pointing at it
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected EntityManager entityManager;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    protected GradingFixture fixture;
+
+    @BeforeEach
+    void createFixture() {
+        fixture = new GradingFixture(entityManager, transactionManager);
+    }
+
+    /**
+     * Statements of the call on this thread, counted once it returned and its transaction committed.
+     */
+    protected static StatementCounter.Recording statementsOf(Runnable call) {
+        try (StatementCounter.Recording recording = StatementCounter.record()) {
+            call.run();
+            return recording;
+        }
+    }
+
+    protected static void assertWithinBudget(String operation, int budget, StatementCounter.Recording recording) {
+        assertThat(recording.count())
+                .withFailMessage(() -> String.format("%s made %d statements, budget %d%n%s", operation, recording.count(),
+                        budget, recording.byShape().entrySet().stream()
+                                .limit(MAX_SHAPES)
+                                .map(entry -> String.format("%6d x %s", entry.getValue(), entry.getKey()))
+                                .collect(Collectors.joining(System.lineSeparator()))))
+                .isLessThanOrEqualTo(budget);
+    }
+}
@@ -0,0 +1,108 @@
+package com.beckett.grading.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, registered as the statement inspector by the
+ * it profile. Inside a {@link #record()} block the statements themselves are kept as well, to show which ones a call
+ * made. A JDBC batch is prepared once, so it counts as one statement.
+ */
+public class StatementCounter implements StatementInspector {
+
+    // statements kept per recording, the count goes on past it
+    private static final int MAX_RECORDED = 10_000;
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private static final class State {
+        private long count;
+        private List<String> recorded;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        State state = STATE.get();
+        state.count++;
+        if (state.recorded != null && state.recorded.size() < MAX_RECORDED) {
+            state.recorded.add(sql);
+        }
+        return sql;
+    }
+
+    public static long current() {
+        return STATE.get().count;
+    }
+
+    /**
+     * Starts keeping the statements of this thread until the recording is closed. Recordings nest, an outer one sees
+     * the statements of the inner ones too.
+     */
+    public static Recording record() {
+        return new Recording();
+    }
+
+    /**
+     * The statement with its literals and parameter lists folded, so the same query with other values has the same
+     * shape.
+     */
+    public static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("?...");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    public static final class Recording implements AutoCloseable {
+        private final State state = STATE.get();
+        private final List<String> outer = state.recorded;
+        private final List<String> statements = new ArrayList<>();
+        private final long countAtStart = state.count;
+        private long count = -1;
+        private boolean closed;
+
+        private Recording() {
+            state.recorded = statements;
+        }
+
+        public long count() {
+            return closed ? count : state.count - countAtStart;
+        }
+
+        public List<String> statements() {
+            return Collections.unmodifiableList(statements);
+        }
+
+        /**
+         * Statement count per shape, most frequent first.
+         */
+        public Map<String, Long> byShape() {
+            Map<String, Long> counts = new HashMap<>();
+            statements.forEach(sql -> counts.merge(shape(sql), 1L, Long::sum));
+            Map<String, Long> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            return sorted;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            count = state.count - countAtStart;
+            closed = true;
+            if (outer != null) {
+                statements.stream().limit(Math.max(0, MAX_RECORDED - outer.size())).forEach(outer::add);
+            }
+            state.recorded = outer;
+        }
+    }
+}
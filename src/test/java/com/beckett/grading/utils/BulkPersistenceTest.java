@@ -0,0 +1,38 @@
+package com.beckett.grading.utils;
+
+import com.beckett.grading.support.Fixtures;
+import com.beckett.grading.support.GradingFixture;
+import com.beckett.grading.support.PostgresIntegrationTest;
+import com.beckett.order.entity.CardSuborderItem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkPersistenceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private BulkPersistence bulkPersistence;
+
+    @Test
+    void queryInsideTheBlockReadsTheWritesBeforeIt() {
+        GradingFixture.Job job = fixture.job(fixture.serviceLevel("Standard", true), fixture.grader(true), 1);
+        String itemName = "Renamed " + job.id();
+
+        Long matches = new TransactionTemplate(transactionManager).execute(status -> {
+            CardSuborderItem item = entityManager.find(CardSuborderItem.class, job.itemIds().get(0));
+            Long[] count = new Long[1];
+            bulkPersistence.write(() -> {
+                Fixtures.set(item, "itemName", itemName);
+                count[0] = entityManager.createQuery(
+                                "select count(i) from CardSuborderItem i where i.itemName = :itemName", Long.class)
+                        .setParameter("itemName", itemName)
+                        .getSingleResult();
+            });
+            return count[0];
+        });
+
+        assertThat(matches).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,69 @@
+package com.beckett.grading.utils;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradingMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GradingMetrics gradingMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        gradingMetrics = new GradingMetrics(meterRegistry);
+        ReflectionTestUtils.setField(gradingMetrics, "enabled", true);
+    }
+
+    @Test
+    void repositoryCallsAreCountedAgainstTheRunningOperation() {
+        gradingMetrics.record("submit", metrics -> {
+            gradingMetrics.repositoryCall();
+            gradingMetrics.repositoryCall();
+            return metrics.serviceLevel("Standard").location(7L);
+        });
+        // outside of an operation, not counted anywhere
+        gradingMetrics.repositoryCall();
+
+        DistributionSummary calls = meterRegistry.get("grading.operation.repository.calls")
+                .tags("operation", "submit", "service_level", "Standard", "location", "7")
+                .summary();
+        assertThat(calls.count()).isEqualTo(1);
+        assertThat(calls.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void nestedOperationCountsItsOwnCalls() {
+        gradingMetrics.record("outer", outer -> {
+            gradingMetrics.repositoryCall();
+            gradingMetrics.record("inner", inner -> {
+                gradingMetrics.repositoryCall();
+                return null;
+            });
+            gradingMetrics.repositoryCall();
+            return null;
+        });
+
+        assertThat(meterRegistry.get("grading.operation.repository.calls").tag("operation", "outer").summary().totalAmount())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("grading.operation.repository.calls").tag("operation", "inner").summary().totalAmount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void nothingIsRecordedWhenDisabled() {
+        ReflectionTestUtils.setField(gradingMetrics, "enabled", false);
+
+        gradingMetrics.record("submit", metrics -> {
+            gradingMetrics.repositoryCall();
+            return null;
+        });
+
+        assertThat(meterRegistry.find("grading.operation.repository.calls").summary()).isNull();
+    }
+}
@@ -0,0 +1,213 @@
+package com.beckett.grading.utils;
+
+import com.beckett.grading.config.CacheConfig;
+import com.beckett.grading.dto.LabelLines;
+import com.beckett.grading.support.Fixtures;
+import com.beckett.order.entity.CardSuborderItem;
+import com.beckett.order.entity.CardSuborderItemPlayer;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The label lines must be exactly the ones of the map based generator that LabelLineLayout replaced, kept below as
+ * {@link #legacyPrepareLines}. Inputs are limited to text without regex metacharacters, the old generator passed the
+ * wrapped text to replaceFirst and failed or mis-wrapped on those.
+ */
+class LabelLineLayoutParityTest {
+
+    private static final String PLAYERS_32 = "Aaron Judge,Giancarlo Stanton,X";
+
+    private final LabelLineLayout labelLineLayout = new LabelLineLayout(new ConcurrentMapCacheManager(CacheConfig.LABEL_LINES));
+
+    @Test
+    void matchesTheOldGeneratorAtTheEdges() {
+        List<CardSuborderItem> items = List.of(
+                item("2023 Topps", "US250", "Shohei Ohtani"),
+                // text of exactly 32 columns, then 33 and 34
+                item("2023 Topps Chrome", "", "Mike Trout X"),
+                item("2023 Topps Chrome", "1", "Mike Trout X"),
+                item("2023 Topps Chrome", "12", "Mike Trout X"),
+                // the space falls on the last column of the window and just after it
+                item("2023 Topps Chrome Update Series", "1", "Mike Trout"),
+                item("2023 Topps Chrome Update Series2", "1", "Mike Trout"),
+                // no space in the first 32 columns
+                item("2023ToppsChromeUpdateSeriesSapphire", "US250", "Shohei Ohtani"),
+                item("2023 ToppsChromeUpdateSeriesSapphireEdition", "US250", "Shohei Ohtani"),
+                // leading, trailing and repeated spaces
+                item(" 2023 Topps Chrome Update Series Sapphire", "US250", "Shohei Ohtani"),
+                item("  2023 Topps Chrome Update Series Sapphire", "US250", "Shohei Ohtani"),
+                item("2023 Topps Chrome Update Series Sapphire   ", "US250", "Shohei Ohtani  "),
+                item("2023 Topps    Chrome Update    Series Sapphire Edition", "US250", "Shohei Ohtani"),
+                item("2023 Topps Chrome Update Series", "US250", "Shohei Ohtani", "   "),
+                item("   ", "", "   "),
+                // null fields
+                item(null, "US250", "Shohei Ohtani"),
+                item("2023 Topps Chrome Update Series Sapphire Edition", null, "Shohei Ohtani"),
+                item("2023 Topps Chrome Update Series Sapphire Edition", "US250", (String[]) null),
+                item("2023 Topps Chrome Update Series Sapphire Edition", "US250"),
+                item("2023 Topps Chrome Update Series Sapphire Edition", "US250", (String) null),
+                item(null, null, (String[]) null),
+                // more text than four lines, the rest goes on the fourth
+                item("2023 Topps Chrome Update Series Sapphire Edition Refractors Gold Parallel Rookie Debut Variation",
+                        "US250", PLAYERS_32, PLAYERS_32),
+                item("2023 Topps Chrome Update Series Sapphire Edition Refractors Gold Parallel Rookie",
+                        "US250", "Shohei Ohtani"),
+                // a word longer than a line after the first wrap
+                item("2023 Topps ChromeUpdateSeriesSapphireEditionRefractors", "US250", "Shohei Ohtani"));
+
+        for (CardSuborderItem item : items) {
+            assertSameLines(item);
+        }
+    }
+
+    @Test
+    void matchesTheOldGeneratorForRandomText() {
+        Random random = new Random(20261018L);
+        for (int i = 0; i < 20_000; i++) {
+            String[] players = new String[random.nextInt(4)];
+            for (int p = 0; p < players.length; p++) {
+                players[p] = text(random, 30);
+            }
+            assertSameLines(item(text(random, 120), text(random, 8), players));
+        }
+    }
+
+    private void assertSameLines(CardSuborderItem item) {
+        String input = item.getSetsName() + " | " + item.getCardNumber() + " | " + item.getPlayers();
+        Map<String, String> expected = legacyPrepareLines(item);
+        LabelLines cached = labelLineLayout.lines(item);
+
+        assertThat(GradeUtils.prepareLines(item)).as(input).isEqualTo(expected);
+        assertThat(Map.of("line1", cached.line1(), "line2", cached.line2(), "line3", cached.line3(), "line4", cached.line4()))
+                .as("cached %s", input).isEqualTo(expected);
+    }
+
+    /**
+     * Words of letters, digits and punctuation seen on labels, separated by one to three spaces, with an occasional
+     * leading or trailing space.
+     */
+    private static String text(Random random, int maxLength) {
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-'&/#,";
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            if (random.nextInt(6) == 0) {
+                text.append(" ".repeat(1 + random.nextInt(3)));
+            } else {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+        }
+        return text.toString();
+    }
+
+    private static CardSuborderItem item(String setsName, String cardNumber, String... playerNames) {
+        CardSuborderItem item = Fixtures.newInstance(CardSuborderItem.class);
+        Fixtures.set(item, "setsName", setsName);
+        Fixtures.set(item, "cardNumber", cardNumber);
+        if (playerNames != null) {
+            List<CardSuborderItemPlayer> players = new ArrayList<>();
+            for (String name : playerNames) {
+                CardSuborderItemPlayer player = Fixtures.newInstance(CardSuborderItemPlayer.class);
+                Fixtures.set(player, "name", name);
+                players.add(player);
+            }
+            Fixtures.set(item, "players", players);
+        }
+        return item;
+    }
+
+    // GradeUtils.prepareLines and generate before LabelLineLayout, unchanged apart from the inlined constants
+
+    private static Map<String, String> legacyPrepareLines(CardSuborderItem cardSuborderItem) {
+        Map<String, String> param = new HashMap<>();
+        param.put("item_attr_name", "");   //if item_attr_name
+        param.put("card_key", cardSuborderItem.getCardNumber()); //card_number
+        if(cardSuborderItem.getPlayers() != null && !cardSuborderItem.getPlayers().isEmpty()) {
+            param.put("player_name", cardSuborderItem.getPlayers().stream().map(CardSuborderItemPlayer::getName).collect(Collectors.joining(",")));         // Player names comman seperated
+        } else {
+            param.put("player_name","");
+        }
+        param.put("set_name", cardSuborderItem.getSetsName()); //setname
+        // hard-coding it currently since in phase 1, only BGS is supported.
+        String service = "bccg"; // for bgs and for bccg is "bccg"
+        Map<String, String> result = generate(param, service);
+        Map<String, String> line = new HashMap<>();
+        line.put("line1", result.getOrDefault("1", "").toUpperCase());
+        line.put("line2", result.getOrDefault("2", "").toUpperCase());
+        line.put("line3", result.getOrDefault("3", "").toUpperCase());
+        line.put("line4", result.getOrDefault("4", "").toUpperCase());
+        return line;
+    }
+
+    private static Map<String, String> generate(Map<String, String> item, String serviceType) { //NOSONAR
+        String missingAttrib = "";
+        if (!item.get("item_attr_name").isEmpty()) {
+            missingAttrib = " (" + item.get("item_attr_name") + ")";
+        }
+        String playerName = "#" + item.get("card_key") + " " + item.get("player_name") + missingAttrib;
+
+        if (serviceType.equals("bccg")) {
+            item.put("set_name", item.get("set_name") + " " + playerName + missingAttrib);
+            playerName = "";
+        }
+
+        Map<String, String> word = new HashMap<>();
+        String setName = item.get("set_name");
+        int i = 1;
+
+        if (setName.length() > 32) {
+            String arrWord;
+            while (setName.length() > 32) { //NOSONAR
+                arrWord = setName.substring(0, 32);
+                int lastSpace = arrWord.lastIndexOf(' ');
+                if (lastSpace > 0) {
+                    arrWord = setName.substring(0, lastSpace);
+                    word.put(String.valueOf(i), arrWord);
+                    setName = setName.replaceFirst(arrWord, "").trim();
+                } else {
+                    break; //NOSONAR
+                }
+                i++;
+                if (i > 3) {
+                    break; //NOSONAR
+                }
+            }
+            if (!setName.isEmpty()) {
+                word.put(String.valueOf(i), setName);
+                i++;
+            }
+        } else {
+            word.put(String.valueOf(i), setName);
+            i++;
+        }
+
+        if (playerName.length() > 35) {
+            while (playerName.length() > 35) {
+                String arrWord = playerName.substring(0, 21);
+                int lastSpace = arrWord.lastIndexOf(' ');
+                if (lastSpace > 0) {
+                    arrWord = playerName.substring(0, lastSpace);
+                    word.put(String.valueOf(i), arrWord);
+                    playerName = playerName.replaceFirst(arrWord, "").trim();
+                } else {
+                    break;
+                }
+                i++;
+            }
+            if (!playerName.isEmpty()) {
+                word.put(String.valueOf(i), playerName);
+                i++;//NOSONAR
+            }
+        } else {
+            word.put(String.valueOf(i), playerName);
+            i++; //NOSONAR
+        }
+
+        return word;
+    }
+}
@@ -0,0 +1,146 @@
+package com.beckett.grading.support;
+
+import org.mockito.Mockito;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Reflection helpers to wire services and populate entities, shared by the tests and the benchmarks. Entities come
+ * from the common library, so properties are set by name and values adapted to the setter type.
+ */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    /**
+     * Calls the widest constructor, taking arguments from the given instances by type and mocking the rest.
+     */
+    public static <T> T construct(Class<T> type, Object... collaborators) {
+        try {
+            Constructor<?> constructor = Arrays.stream(type.getDeclaredConstructors())
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow();
+            Object[] args = Arrays.stream(constructor.getParameterTypes())
+                    .map(parameterType -> Arrays.stream(collaborators)
+                            .filter(parameterType::isInstance)
+                            .findFirst()
+                            .orElseGet(() -> Mockito.mock(parameterType)))
+                    .toArray();
+            constructor.setAccessible(true);
+            return type.cast(constructor.newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't construct " + type.getName(), e);
+        }
+    }
+
+    public static <T> T newInstance(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't instantiate " + type.getName(), e);
+        }
+    }
+
+    public static <T> T set(T target, String property, Object value) {
+        Method setter = setter(target, property);
+        try {
+            setter.invoke(target, adapt(value, setter.getParameterTypes()[0]));
+            return target;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't set " + property + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Sets a property to a fresh instance of its declared type and returns that instance.
+     */
+    public static Object setNew(Object target, String property) {
+        Object value = newInstance(setter(target, property).getParameterTypes()[0]);
+        set(target, property, value);
+        return value;
+    }
+
+    public static void setField(Object target, String name, Object value) {
+        Class<?> type = target.getClass();
+        while (type != null) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                type = type.getSuperclass();
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+    }
+
+    public static void invoke(Object target, String methodName) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(methodName);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Can't invoke " + methodName + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    private static Method setter(Object target, String property) {
+        String setterName = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(setterName) && method.getParameterCount() == 1) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException("No setter for " + property + " on " + target.getClass().getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object adapt(Object value, Class<?> type) {
+        if (value == null || type.isInstance(value)) {
+            return value;
+        }
+        if (type == boolean.class && value instanceof Boolean) {
+            return value;
+        }
+        if (type.isEnum() && value instanceof String name) {
+            return Enum.valueOf((Class<? extends Enum>) type, name);
+        }
+        if (Set.class.isAssignableFrom(type) && value instanceof Collection<?> collection) {
+            return new LinkedHashSet<>(collection);
+        }
+        if (List.class.isAssignableFrom(type) && value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        if (type == LocalDate.class && value instanceof LocalDateTime dateTime) {
+            return dateTime.toLocalDate();
+        }
+        if (value instanceof Number number) {
+            if (type == Long.class || type == long.class) {
+                return number.longValue();
+            } else if (type == Integer.class || type == int.class) {
+                return number.intValue();
+            } else if (type == Double.class || type == double.class) {
+                return number.doubleValue();
+            } else if (type == BigDecimal.class) {
+                return new BigDecimal(number.toString());
+            } else if (type == String.class) {
+                return number.toString();
+            }
+        }
+        if (type == String.class) {
+            return String.valueOf(value);
+        }
+        throw new IllegalArgumentException("Can't adapt " + value.getClass().getName() + " to " + type.getName());
+    }
+}
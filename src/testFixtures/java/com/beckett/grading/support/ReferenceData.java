@@ -0,0 +1,107 @@
+package com.beckett.grading.support;
+
+import com.beckett.grading.consants.Formulas;
+import com.beckett.grading.dto.GradeFormulaDTO;
+import com.beckett.grading.entity.GradeFormula;
+import com.beckett.grading.entity.GradeRoundNumber;
+import com.beckett.grading.entity.TakeOffReference;
+import com.beckett.grading.repository.GradeFormulaRepository;
+import com.beckett.grading.repository.GradeRoundNumberRepository;
+import com.beckett.grading.repository.TakeOffReferenceRepository;
+import com.beckett.grading.utils.GradeFormulaMapper;
+import com.beckett.grading.utils.GradingDescriptionMapper;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Fixed grade formula, round number, take off and description tables with the shape of the real ones, plus
+ * repository and mapper stubs that answer the derived queries from them. Used by the grade calculation benchmark and parity test.
+ */
+public final class ReferenceData {
+
+    public final List<GradeFormula> formulas = new ArrayList<>();
+    public final List<GradeRoundNumber> roundNumbers = new ArrayList<>();
+    public final List<TakeOffReference> takeOffReferences = new ArrayList<>();
+    public final Map<GradeFormula, GradeFormulaDTO> formulaDTOs = new IdentityHashMap<>();
+    // compareTo keys, the grades come with the scale of whichever path computed them
+    public final NavigableMap<BigDecimal, String> descriptions = new TreeMap<>();
+
+    public final GradeFormulaRepository gradeFormulaRepository = mock(GradeFormulaRepository.class);
+    public final GradeRoundNumberRepository gradeRoundNumberRepository = mock(GradeRoundNumberRepository.class);
+    public final TakeOffReferenceRepository takeOffReferenceRepository = mock(TakeOffReferenceRepository.class);
+    public final GradeFormulaMapper gradeFormulaMapper = mock(GradeFormulaMapper.class);
+    public final GradingDescriptionMapper gradingDescriptionMapper = mock(GradingDescriptionMapper.class);
+
+    public ReferenceData() {
+        String[][] ranges = {{"0.0", "1.0"}, {"1.5", "3.0"}, {"3.5", "9.0"}};
+        String[][] weights = {{"0.70", "0.10", "0.10", "0.10"}, {"0.60", "0.20", "0.10", "0.10"}, {"0.50", "0.25", "0.15", "0.10"}};
+        for (Formulas name : Formulas.values()) {
+            for (int i = 0; i < ranges.length; i++) {
+                GradeFormula formula = Fixtures.newInstance(GradeFormula.class);
+                Fixtures.set(formula, "gradeName", name.getValue());
+                Fixtures.set(formula, "gradeBeginning", new BigDecimal(ranges[i][0]));
+                Fixtures.set(formula, "gradeEnding", new BigDecimal(ranges[i][1]));
+                GradeFormulaDTO dto = Fixtures.newInstance(GradeFormulaDTO.class);
+                Fixtures.set(dto, "grade1", new BigDecimal(weights[i][0]));
+                Fixtures.set(dto, "grade2", new BigDecimal(weights[i][1]));
+                Fixtures.set(dto, "grade3", new BigDecimal(weights[i][2]));
+                Fixtures.set(dto, "grade4", new BigDecimal(weights[i][3]));
+                formulas.add(formula);
+                formulaDTOs.put(formula, dto);
+            }
+        }
+        for (int halfSteps = 2; halfSteps <= 20; halfSteps++) {
+            BigDecimal number = new BigDecimal(halfSteps).divide(BigDecimal.TWO).setScale(2);
+            GradeRoundNumber roundNumber = Fixtures.newInstance(GradeRoundNumber.class);
+            Fixtures.set(roundNumber, "numberBeginning", number.subtract(new BigDecimal("0.25")));
+            Fixtures.set(roundNumber, "numberEnding", number.add(new BigDecimal("0.24")));
+            Fixtures.set(roundNumber, "number", number);
+            roundNumbers.add(roundNumber);
+        }
+        for (int halfSteps = 1; halfSteps <= 9; halfSteps++) {
+            TakeOffReference takeOffReference = Fixtures.newInstance(TakeOffReference.class);
+            Fixtures.set(takeOffReference, "number", new BigDecimal(halfSteps).divide(BigDecimal.TWO));
+            takeOffReferences.add(takeOffReference);
+        }
+
+        String[] names = {"Poor", "Fair", "Good", "Good+", "Very Good", "Very Good+", "VG-EX", "VG-EX+", "Excellent",
+                "Excellent+", "Ex-Mt", "Ex-Mt+", "Near Mint", "Near Mint+", "NM-MT", "NM-MT+", "Mint", "Gem Mint", "Pristine"};
+        for (int halfSteps = 2; halfSteps <= 20; halfSteps++) {
+            descriptions.put(new BigDecimal(halfSteps).divide(BigDecimal.TWO), names[halfSteps - 2]);
+        }
+
+        when(gradingDescriptionMapper.getMapping(any())).thenAnswer(invocation -> descriptions.get(invocation.<BigDecimal>getArgument(0)));
+        when(gradeFormulaMapper.map(any())).thenAnswer(invocation -> formulaDTOs.get(invocation.<GradeFormula>getArgument(0)));
+        when(gradeFormulaRepository.findAll()).thenReturn(formulas);
+        when(gradeRoundNumberRepository.findAll()).thenReturn(roundNumbers);
+        when(takeOffReferenceRepository.findAll()).thenReturn(takeOffReferences);
+        when(gradeFormulaRepository.findFirstByGradeNameAndGradeBeginningLessThanEqualAndGradeEndingGreaterThanEqual(any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    String name = invocation.getArgument(0);
+                    BigDecimal diff = invocation.getArgument(1);
+                    return formulas.stream()
+                            .filter(formula -> formula.getGradeName().equals(name)
+                                    && formula.getGradeBeginning().compareTo(diff) <= 0
+                                    && formula.getGradeEnding().compareTo(diff) >= 0)
+                            .findFirst();
+                });
+        when(gradeRoundNumberRepository.findFirstByNumberEndingGreaterThanEqualAndNumberBeginningLessThanEqual(any(), any()))
+                .thenAnswer(invocation -> {
+                    BigDecimal sum = invocation.getArgument(0);
+                    return roundNumbers.stream()
+                            .filter(roundNumber -> roundNumber.getNumberEnding().compareTo(sum) >= 0
+                                    && roundNumber.getNumberBeginning().compareTo(sum) <= 0)
+                            .findFirst();
+                });
+        when(takeOffReferenceRepository.countByNumberLessThanEqual(any()))
+                .thenAnswer(invocation -> {
+                    BigDecimal bump = invocation.getArgument(0);
+                    return (int) takeOffReferences.stream().filter(takeOff -> takeOff.getNumber().compareTo(bump) <= 0).count();
+                });
+    }
+}